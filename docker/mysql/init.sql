@@ -21,6 +21,22 @@ CREATE TABLE IF NOT EXISTS user (
     INDEX idx_status (status)
 ) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='用户表';
 
+-- 创建应用用户表（与 User 实体一致），键集分页所需的索引不依赖 JPA ddl-auto 创建
+CREATE TABLE IF NOT EXISTS users (
+    id BIGINT AUTO_INCREMENT PRIMARY KEY,
+    username VARCHAR(50) NOT NULL UNIQUE COMMENT '用户名',
+    email VARCHAR(100) NOT NULL UNIQUE COMMENT '邮箱',
+    password VARCHAR(255) NOT NULL COMMENT '密码（加密）',
+    real_name VARCHAR(50) COMMENT '真实姓名',
+    phone VARCHAR(20) COMMENT '手机号',
+    status INT NOT NULL COMMENT '状态：1-启用，0-禁用',
+    created_at DATETIME(6) NOT NULL COMMENT '创建时间',
+    updated_at DATETIME(6) COMMENT '更新时间',
+    -- 支持按创建时间排序及键集（游标）分页
+    INDEX idx_users_created_at (created_at, id),
+    INDEX idx_users_status_created_at (status, created_at, id)
+) ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci COMMENT='应用用户表';
+
 -- 插入测试数据
 INSERT INTO user (username, email, real_name, phone, password, status) VALUES 
 ('admin', 'admin@example.com', '管理员', '13800138000', '$2a$10$92IXUNpkjO0rOQ5byMi.Ye4oKoEa3Ro9llC/.og/at2.uheWG/igi', 1),
@@ -0,0 +1,103 @@
+package com.example.springmvc.ai;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SseDeltaReader 基准测试
+ *
+ * 与逐行解码成字符串再构建JsonNode树的读取方式对比，输入为一次完整的流式响应。
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args="SseDeltaReader"
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class SseDeltaReaderBenchmark {
+
+    /**
+     * 响应中的增量块数
+     */
+    @Param({"100", "1000"})
+    private int chunks;
+
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] stream;
+
+    @Setup
+    public void setup() {
+        StringBuilder sse = new StringBuilder();
+        for (int i = 0; i < chunks; i++) {
+            sse.append("data: {\"id\":\"chatcmpl-1\",\"object\":\"chat.completion.chunk\",\"created\":1700000000,")
+                    .append("\"model\":\"Qwen/QwQ-32B\",\"choices\":[{\"index\":0,\"delta\":{\"content\":\"第")
+                    .append(i)
+                    .append("个token \",\"reasoning_content\":null},\"finish_reason\":null}],\"usage\":null}\n\n");
+        }
+        sse.append("data: {\"choices\":[],\"usage\":{\"prompt_tokens\":10,\"completion_tokens\":")
+                .append(chunks)
+                .append(",\"total_tokens\":")
+                .append(chunks + 10)
+                .append("}}\n\ndata: [DONE]\n\n");
+        stream = sse.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void deltaReader(Blackhole blackhole) throws IOException {
+        try (SseDeltaReader reader = new SseDeltaReader(new ByteArrayInputStream(stream), jsonFactory)) {
+            ChatDelta delta;
+            while ((delta = reader.next()) != null) {
+                blackhole.consume(delta.token());
+            }
+            blackhole.consume(reader.usage());
+        }
+    }
+
+    @Benchmark
+    public void lineReaderWithTree(Blackhole blackhole) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(new ByteArrayInputStream(stream), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (!line.startsWith("data:")) {
+                    continue;
+                }
+                String data = line.substring(5).trim();
+                if ("[DONE]".equals(data)) {
+                    break;
+                }
+                JsonNode root = objectMapper.readTree(data);
+                blackhole.consume(root.path("choices").path(0).path("delta").path("content").asText());
+                blackhole.consume(root.path("usage"));
+            }
+        }
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.example.springmvc.mcp;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.math.BigDecimal;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * ArithmeticExpression 基准测试
+ *
+ * 分别测量编译并求值（缓存未命中）和对已编译表达式求值（缓存命中）的耗时。
+ * 运行：mvn -Pjmh test-compile exec:exec -Djmh.args="ArithmeticExpression"
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArithmeticExpressionBenchmark {
+
+    @Param({
+            "1 + 2 * 3",
+            "(12.5 + 7.5) * 3 - 40 / 8 + -(2 * (3 + 4))",
+            "((1 + 2) * (3 + 4) - (5 - 6) / (7 + 8)) * ((9 - 10) * (11 + 12) + 13 / 14)"
+    })
+    private String expression;
+
+    private ArithmeticExpression compiled;
+
+    @Setup
+    public void setup() {
+        compiled = ArithmeticExpression.compile(expression);
+    }
+
+    @Benchmark
+    public BigDecimal compileAndEvaluate() {
+        return ArithmeticExpression.compile(expression).evaluate();
+    }
+
+    @Benchmark
+    public BigDecimal evaluateCompiled() {
+        return compiled.evaluate();
+    }
+
+}
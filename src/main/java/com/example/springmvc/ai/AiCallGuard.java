@@ -0,0 +1,257 @@
+package com.example.springmvc.ai;
+
+import com.example.springmvc.common.exception.BusinessException;
+import com.example.springmvc.common.exception.ServiceUnavailableException;
+import com.example.springmvc.config.AiResilienceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.ConnectTimeoutException;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.time.Duration;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * AI上游调用容错
+ *
+ * 每次尝试依次经过：
+ * - 熔断器：熔断中直接返回503，不占用上游和线程
+ * - 并发隔离：同时进行的上游调用不超过上限，等待超时返回503；
+ *   本地连接池取连接超时同样视为本地繁忙，返回503，不重试也不计入熔断统计
+ * - 重试：连接失败、5xx、429 按指数退避（全抖动）重试，重试次数受 {@link RetryBudget} 限制；
+ *   读取超时不重试（上游可能已经处理并计费，且重试会成倍占用请求线程）
+ * - 总时限：整个调用（含重试和退避）不超过 deadline，每次尝试的响应超时取剩余时间（见 {@link #remainingTime()}）
+ *
+ * 重试耗尽或遇到不可重试的错误时抛出502，由全局异常处理返回给调用方，不再伪装成AI回复
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class AiCallGuard {
+
+    /**
+     * 当前线程上正在执行的调用的截止时间（System.nanoTime）
+     */
+    private static final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    private final AiResilienceProperties properties;
+    private final Semaphore bulkhead;
+    private final CircuitBreaker circuitBreaker;
+    private final RetryBudget retryBudget;
+
+    private final Counter successes;
+    private final Counter failures;
+    private final Counter rejectedOpen;
+    private final Counter rejectedFull;
+    private final Counter rejectedPool;
+    private final Counter retries;
+    private final Counter retriesExhausted;
+
+    public AiCallGuard(AiResilienceProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.bulkhead = new Semaphore(properties.getBulkhead().getMaxConcurrentCalls());
+        this.circuitBreaker = new CircuitBreaker(properties.getCircuitBreaker());
+        this.retryBudget = new RetryBudget(properties.getRetry());
+
+        this.successes = counter(meterRegistry, "ai.chat.calls", "result", "success", "上游调用成功次数");
+        this.failures = counter(meterRegistry, "ai.chat.calls", "result", "failure", "上游调用失败次数（计入熔断统计）");
+        this.rejectedOpen = counter(meterRegistry, "ai.chat.rejected", "reason", "circuit_open", "熔断中被拒绝的调用数");
+        this.rejectedFull = counter(meterRegistry, "ai.chat.rejected", "reason", "bulkhead_full", "并发已满被拒绝的调用数");
+        this.rejectedPool = counter(meterRegistry, "ai.chat.rejected", "reason", "pool_exhausted", "等待连接池超时被拒绝的调用数");
+        this.retries = counter(meterRegistry, "ai.chat.retries", "result", "attempted", "重试次数");
+        this.retriesExhausted = counter(meterRegistry, "ai.chat.retries", "result", "budget_exhausted", "因重试预算耗尽放弃的重试数");
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("ai.chat.circuit.state", circuitBreaker, breaker -> breaker.state() == state ? 1 : 0)
+                    .tag("state", state.name().toLowerCase())
+                    .description("熔断器当前状态（当前状态为1，其余为0）")
+                    .register(meterRegistry);
+        }
+        Gauge.builder("ai.chat.active", this, guard ->
+                        properties.getBulkhead().getMaxConcurrentCalls() - guard.bulkhead.availablePermits())
+                .description("进行中的上游调用数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 执行上游调用
+     *
+     * @param call 单次调用，失败时抛出 {@link RestClientException}
+     * @return 调用结果
+     * @throws ServiceUnavailableException 熔断中或并发已满
+     * @throws BusinessException 上游调用失败（502）
+     */
+    public <T> T execute(Supplier<T> call) {
+        retryBudget.onRequest();
+        int maxAttempts = Math.max(1, properties.getRetry().getMaxAttempts());
+        long deadline = System.nanoTime() + properties.getRetry().getDeadline().toNanos();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return attempt(call, deadline);
+            } catch (RestClientException e) {
+                if (!isRetryable(e) || attempt >= maxAttempts) {
+                    throw upstreamError(e);
+                }
+                long backoff = backoffMillis(attempt);
+                if (TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()) <= backoff) {
+                    retriesExhausted.increment();
+                    throw upstreamError(e);
+                }
+                if (!retryBudget.tryRetry()) {
+                    retriesExhausted.increment();
+                    throw upstreamError(e);
+                }
+                retries.increment();
+                log.warn("AI上游调用失败，{}ms后重试: attempt={}, error={}", backoff, attempt, e.getMessage());
+                try {
+                    Thread.sleep(backoff);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw upstreamError(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * 当前线程上正在执行的调用距截止时间的剩余时间，供HTTP客户端设置本次尝试的响应超时
+     *
+     * @return 剩余时间；不在受保护的调用中时为null
+     */
+    public static Duration remainingTime() {
+        Long deadline = DEADLINE.get();
+        return deadline != null ? Duration.ofNanos(Math.max(0, deadline - System.nanoTime())) : null;
+    }
+
+    private <T> T attempt(Supplier<T> call, long deadline) {
+        if (!circuitBreaker.tryAcquire()) {
+            rejectedOpen.increment();
+            throw new ServiceUnavailableException("AI服务暂时不可用（熔断中），请稍后重试",
+                    Math.max(1, (circuitBreaker.remainingOpenMillis() + 999) / 1000));
+        }
+        if (!acquireBulkhead()) {
+            circuitBreaker.onIgnored();
+            rejectedFull.increment();
+            throw new ServiceUnavailableException("AI服务繁忙，请稍后重试", 1);
+        }
+        boolean recorded = false;
+        DEADLINE.set(deadline);
+        try {
+            T result = call.get();
+            circuitBreaker.onSuccess();
+            successes.increment();
+            recorded = true;
+            return result;
+        } catch (RuntimeException e) {
+            if (isPoolExhausted(e)) {
+                rejectedPool.increment();
+                throw new ServiceUnavailableException("AI服务繁忙，请稍后重试", 1);
+            }
+            if (isUpstreamFailure(e)) {
+                circuitBreaker.onFailure();
+                failures.increment();
+                recorded = true;
+            }
+            throw e;
+        } finally {
+            DEADLINE.remove();
+            if (!recorded) {
+                circuitBreaker.onIgnored();
+            }
+            bulkhead.release();
+        }
+    }
+
+    private boolean acquireBulkhead() {
+        long maxWait = properties.getBulkhead().getMaxWait().toMillis();
+        if (maxWait <= 0) {
+            return bulkhead.tryAcquire();
+        }
+        try {
+            return bulkhead.tryAcquire(maxWait, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /**
+     * 从本地连接池取连接超时：请求未发出，与上游健康无关
+     */
+    private static boolean isPoolExhausted(Throwable e) {
+        return e instanceof ResourceAccessException && e.getCause() instanceof ConnectionRequestTimeoutException;
+    }
+
+    /**
+     * 连接/读取失败、5xx、429 视为上游故障，计入熔断统计
+     */
+    private static boolean isUpstreamFailure(Throwable e) {
+        return e instanceof ResourceAccessException
+                || e instanceof HttpServerErrorException
+                || isTooManyRequests(e);
+    }
+
+    /**
+     * 只重试请求确定未被上游处理或上游明确要求重试的情况：连接失败、5xx、429；
+     * 读取超时时上游可能已经生成并计费，不重试
+     */
+    private static boolean isRetryable(Throwable e) {
+        return (e instanceof ResourceAccessException && isConnectFailure(e.getCause()))
+                || e instanceof HttpServerErrorException
+                || isTooManyRequests(e);
+    }
+
+    private static boolean isConnectFailure(Throwable cause) {
+        // ConnectTimeoutException 是 SocketTimeoutException 的子类，需在读取超时之前判断
+        return cause instanceof ConnectTimeoutException
+                || cause instanceof ConnectException
+                || cause instanceof NoRouteToHostException
+                || cause instanceof UnknownHostException;
+    }
+
+    private static boolean isTooManyRequests(Throwable e) {
+        return e instanceof HttpStatusCodeException statusError
+                && statusError.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
+    /**
+     * 全抖动：在 [0, min(maxBackoff, initialBackoff * 2^(attempt-1))] 内随机
+     */
+    private long backoffMillis(int attempt) {
+        long initial = properties.getRetry().getInitialBackoff().toMillis();
+        long max = properties.getRetry().getMaxBackoff().toMillis();
+        long cap = Math.min(max, initial << Math.min(attempt - 1, 20));
+        return ThreadLocalRandom.current().nextLong(cap + 1);
+    }
+
+    private static BusinessException upstreamError(RestClientException e) {
+        String detail = e instanceof HttpStatusCodeException statusError
+                ? "状态码 " + statusError.getStatusCode().value()
+                : e.getMessage();
+        return new BusinessException(502, "AI服务调用失败: " + detail, e);
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String name, String tag, String value,
+                                   String description) {
+        return Counter.builder(name)
+                .tag(tag, value)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+}
@@ -0,0 +1,139 @@
+package com.example.springmvc.ai;
+
+import com.example.springmvc.common.exception.TooManyRequestsException;
+import com.example.springmvc.common.utils.ThreadUtil;
+import com.example.springmvc.config.AiStreamProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * AI流式聊天执行器
+ *
+ * 每个流占用一个许可，许可数即最大并发流数；
+ * 获取不到许可（或排队超时）时流以 {@link TooManyRequestsException} 结束，
+ * 尚未向客户端写出任何数据，由全局异常处理返回429
+ *
+ * 流任务在JDK 21+上运行于虚拟线程，否则运行于命名的有界平台线程池，
+ * 线程数不会超过最大并发流数
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class AiStreamExecutor {
+
+    private final AiStreamProperties properties;
+    private final Semaphore permits;
+    private final ExecutorService executor;
+    private final Scheduler scheduler;
+    private final Counter rejected;
+
+    public AiStreamExecutor(AiStreamProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.permits = new Semaphore(properties.getMaxConcurrentStreams());
+        this.executor = createExecutor(properties);
+        this.scheduler = Schedulers.fromExecutorService(executor, "ai-stream");
+
+        Gauge.builder("ai.stream.active", this, AiStreamExecutor::activeStreams)
+                .description("进行中的AI流式聊天数")
+                .register(meterRegistry);
+        Gauge.builder("ai.stream.limit", properties, AiStreamProperties::getMaxConcurrentStreams)
+                .description("AI流式聊天并发上限")
+                .register(meterRegistry);
+        this.rejected = Counter.builder("ai.stream.rejected")
+                .description("因并发上限被拒绝的AI流式聊天数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 在流执行器上运行流，流终止（完成、出错或被取消）后释放许可
+     *
+     * 许可在订阅时（在订阅线程上）获取，未被订阅的流不占用许可；
+     * 获取不到许可时流以 {@link TooManyRequestsException} 结束
+     *
+     * @param source 流（可包含阻塞读取）
+     * @return 运行在流执行器上的流
+     */
+    public <T> Flux<T> run(Flux<T> source) {
+        return Flux.defer(() -> {
+            if (!tryAcquire()) {
+                rejected.increment();
+                return Flux.error(new TooManyRequestsException("当前流式聊天请求过多，请稍后重试"));
+            }
+            AtomicBoolean released = new AtomicBoolean();
+            return source
+                    .subscribeOn(scheduler)
+                    .doFinally(signal -> {
+                        if (released.compareAndSet(false, true)) {
+                            permits.release();
+                        }
+                    });
+        });
+    }
+
+    /**
+     * @return 进行中的流数
+     */
+    public int activeStreams() {
+        return properties.getMaxConcurrentStreams() - permits.availablePermits();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+        executor.shutdownNow();
+    }
+
+    private boolean tryAcquire() {
+        long timeout = properties.getAcquireTimeout().toMillis();
+        if (timeout <= 0) {
+            return permits.tryAcquire();
+        }
+        try {
+            return permits.tryAcquire(timeout, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private static ExecutorService createExecutor(AiStreamProperties properties) {
+        if (properties.isVirtualThreads()) {
+            Optional<ExecutorService> virtual = ThreadUtil.newVirtualThreadPerTaskExecutor();
+            if (virtual.isPresent()) {
+                log.info("AI流式聊天执行器: 虚拟线程, maxConcurrentStreams={}", properties.getMaxConcurrentStreams());
+                return virtual.get();
+            }
+        }
+        // 许可数已限制并发，线程池大小与之相同即可保证不会排队
+        int size = properties.getMaxConcurrentStreams();
+        AtomicInteger index = new AtomicInteger();
+        ThreadPoolExecutor pool = new ThreadPoolExecutor(size, size, 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+                    Thread thread = new Thread(r, "ai-stream-" + index.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        pool.allowCoreThreadTimeOut(true);
+        log.info("AI流式聊天执行器: 平台线程池, maxConcurrentStreams={}", size);
+        return pool;
+    }
+
+}
@@ -0,0 +1,22 @@
+package com.example.springmvc.ai;
+
+/**
+ * 流式聊天增量
+ *
+ * @param content 回复内容片段
+ * @param reasoning 推理内容片段（推理模型的 reasoning_content）
+ * @author example
+ * @version 1.0.0
+ */
+public record ChatDelta(String content, String reasoning) {
+
+    /**
+     * 推送给客户端的文本：优先回复内容，没有时使用推理内容
+     *
+     * @return 文本片段，可能为空字符串
+     */
+    public String token() {
+        return content != null && !content.isEmpty() ? content : reasoning != null ? reasoning : "";
+    }
+
+}
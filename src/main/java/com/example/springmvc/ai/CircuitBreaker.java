@@ -0,0 +1,151 @@
+package com.example.springmvc.ai;
+
+import com.example.springmvc.config.AiResilienceProperties;
+
+/**
+ * 熔断器
+ *
+ * 基于最近N次调用的失败率：
+ * - CLOSED：正常放行，窗口内失败率达到阈值时转为OPEN
+ * - OPEN：快速失败，持续openDuration后转为HALF_OPEN
+ * - HALF_OPEN：放行少量试探请求，全部成功则恢复CLOSED，任一失败则重新OPEN
+ *
+ * 状态变更都在对象锁内完成，调用本身不持锁
+ *
+ * @author example
+ * @version 1.0.0
+ */
+public class CircuitBreaker {
+
+    /**
+     * 熔断状态
+     */
+    public enum State {
+        CLOSED, OPEN, HALF_OPEN
+    }
+
+    private final AiResilienceProperties.CircuitBreaker config;
+
+    /**
+     * 最近调用结果的环形窗口，true表示失败
+     */
+    private final boolean[] window;
+    private int windowIndex;
+    private int windowCalls;
+    private int windowFailures;
+
+    private State state = State.CLOSED;
+    private long openUntilNanos;
+    private int halfOpenInFlight;
+    private int halfOpenSuccesses;
+
+    public CircuitBreaker(AiResilienceProperties.CircuitBreaker config) {
+        this.config = config;
+        this.window = new boolean[Math.max(1, config.getWindowSize())];
+    }
+
+    /**
+     * 申请放行
+     *
+     * @return false表示熔断中，应快速失败
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN) {
+            if (System.nanoTime() - openUntilNanos < 0) {
+                return false;
+            }
+            state = State.HALF_OPEN;
+            halfOpenInFlight = 0;
+            halfOpenSuccesses = 0;
+        }
+        if (state == State.HALF_OPEN) {
+            if (halfOpenInFlight >= config.getHalfOpenCalls()) {
+                return false;
+            }
+            halfOpenInFlight++;
+        }
+        return true;
+    }
+
+    /**
+     * 记录成功
+     */
+    public synchronized void onSuccess() {
+        if (state == State.HALF_OPEN) {
+            halfOpenSuccesses++;
+            if (halfOpenSuccesses >= config.getHalfOpenCalls()) {
+                close();
+            }
+            return;
+        }
+        record(false);
+    }
+
+    /**
+     * 记录失败
+     */
+    public synchronized void onFailure() {
+        if (state == State.HALF_OPEN) {
+            open();
+            return;
+        }
+        if (state == State.CLOSED) {
+            record(true);
+            if (windowCalls >= config.getMinimumCalls()
+                    && windowFailures * 100L >= (long) config.getFailureRateThreshold() * windowCalls) {
+                open();
+            }
+        }
+    }
+
+    /**
+     * 调用结束但不计入统计（如客户端错误），归还半开状态的试探名额
+     */
+    public synchronized void onIgnored() {
+        if (state == State.HALF_OPEN && halfOpenInFlight > 0) {
+            halfOpenInFlight--;
+        }
+    }
+
+    /**
+     * @return 当前状态（OPEN到期但尚未有请求到达时仍返回OPEN）
+     */
+    public synchronized State state() {
+        return state;
+    }
+
+    /**
+     * @return 距离熔断结束的剩余毫秒数，未熔断时为0
+     */
+    public synchronized long remainingOpenMillis() {
+        return state == State.OPEN ? Math.max(0, (openUntilNanos - System.nanoTime()) / 1_000_000) : 0;
+    }
+
+    private void record(boolean failure) {
+        if (windowCalls == window.length) {
+            if (window[windowIndex]) {
+                windowFailures--;
+            }
+        } else {
+            windowCalls++;
+        }
+        window[windowIndex] = failure;
+        if (failure) {
+            windowFailures++;
+        }
+        windowIndex = (windowIndex + 1) % window.length;
+    }
+
+    private void open() {
+        state = State.OPEN;
+        openUntilNanos = System.nanoTime() + config.getOpenDuration().toNanos();
+    }
+
+    private void close() {
+        state = State.CLOSED;
+        windowIndex = 0;
+        windowCalls = 0;
+        windowFailures = 0;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.springmvc.ai;
+
+import com.example.springmvc.config.AiResilienceProperties;
+
+/**
+ * 重试预算
+ *
+ * 令牌桶：每个请求存入budgetRatio个令牌，另按minRetriesPerSecond匀速补充保底令牌，
+ * 每次重试取走一个令牌，取不到则放弃重试。
+ * 上游整体故障时重试量被限制在请求量的固定比例内，避免重试风暴放大故障
+ *
+ * @author example
+ * @version 1.0.0
+ */
+public class RetryBudget {
+
+    /**
+     * 桶容量按保底速率的秒数计算，限制低谷期攒下的突发重试
+     */
+    private static final int CAPACITY_SECONDS = 10;
+
+    private final double ratio;
+    private final double minPerSecond;
+    private final double capacity;
+
+    private double balance;
+    private long lastRefillNanos = System.nanoTime();
+
+    public RetryBudget(AiResilienceProperties.Retry config) {
+        this.ratio = config.getBudgetRatio();
+        this.minPerSecond = config.getMinRetriesPerSecond();
+        this.capacity = Math.max(1, minPerSecond * CAPACITY_SECONDS);
+        this.balance = capacity;
+    }
+
+    /**
+     * 记录一次请求（非重试），为预算存入令牌
+     */
+    public synchronized void onRequest() {
+        refill();
+        balance = Math.min(capacity, balance + ratio);
+    }
+
+    /**
+     * 申请一次重试
+     *
+     * @return false表示预算耗尽，不应重试
+     */
+    public synchronized boolean tryRetry() {
+        refill();
+        if (balance < 1) {
+            return false;
+        }
+        balance -= 1;
+        return true;
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        double elapsedSeconds = (now - lastRefillNanos) / 1_000_000_000.0;
+        lastRefillNanos = now;
+        balance = Math.min(capacity, balance + elapsedSeconds * minPerSecond);
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.example.springmvc.ai;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.classic.methods.HttpPost;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.core5.http.ClassicHttpResponse;
+import org.apache.hc.core5.http.ContentType;
+import org.apache.hc.core5.http.io.entity.ByteArrayEntity;
+import org.apache.hc.core5.http.io.entity.EntityUtils;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * SiliconFlow 流式聊天客户端
+ *
+ * 将上游的SSE响应转换为 {@link ChatDelta} 流（按字节增量解析，见 {@link SseDeltaReader}）：
+ * - 按需读取：下游每请求一个元素才继续读取上游，客户端读得慢时上游随TCP窗口一起放缓
+ * - 取消即中断：下游取消（如客户端断开）或出错时立即中止上游请求并丢弃连接
+ * - 正常结束时读完剩余响应体再关闭，连接归还连接池复用
+ *
+ * 读取上游是阻塞操作，订阅方需在可阻塞的线程上订阅（见 {@link AiStreamExecutor}）
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class SiliconFlowStreamClient {
+
+    private static final String DEFAULT_MODEL = "deepseek-ai/DeepSeek-V2.5";
+
+    private final CloseableHttpClient httpClient;
+    private final JsonFactory jsonFactory;
+    private final ObjectWriter requestWriter;
+
+    @Value("${spring.ai.openai.api-key}")
+    private String apiKey;
+
+    @Value("${spring.ai.openai.base-url}")
+    private String baseUrl;
+
+    public SiliconFlowStreamClient(CloseableHttpClient aiHttpClient, ObjectMapper objectMapper) {
+        this.httpClient = aiHttpClient;
+        this.jsonFactory = objectMapper.getFactory();
+        this.requestWriter = objectMapper.writerFor(StreamRequest.class);
+    }
+
+    /**
+     * 流式聊天请求体（OpenAI兼容格式）
+     */
+    private record StreamRequest(String model, List<StreamMessage> messages, boolean stream,
+                                 @JsonProperty("stream_options") StreamOptions streamOptions) {
+    }
+
+    /**
+     * 要求上游在最后一个块中返回用量
+     */
+    private record StreamOptions(@JsonProperty("include_usage") boolean includeUsage) {
+    }
+
+    private record StreamMessage(String role, String content) {
+    }
+
+    /**
+     * 上游请求及响应
+     */
+    private record Exchange(HttpPost request, ClassicHttpResponse response, SseDeltaReader reader) {
+
+        /**
+         * 正常结束：读完剩余响应体（[DONE]之后的空行和分块结束标记）后关闭，连接归还连接池
+         */
+        void release() {
+            try {
+                reader.close();
+                EntityUtils.consume(response.getEntity());
+                response.close();
+            } catch (IOException e) {
+                log.debug("释放上游响应失败，丢弃连接: {}", e.getMessage());
+                abort();
+            }
+        }
+
+        /**
+         * 取消或出错：中止请求并关闭响应，连接不再复用
+         */
+        void abort() {
+            request.cancel();
+            try {
+                reader.close();
+                response.close();
+            } catch (IOException e) {
+                log.debug("关闭上游响应失败: {}", e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @return 流式聊天使用的模型
+     */
+    public String model() {
+        return DEFAULT_MODEL;
+    }
+
+    /**
+     * 发起流式聊天
+     *
+     * @param message 用户消息
+     * @param onUsage 上游正常结束时回调实际用量（上游未返回用量时为 {@link TokenUsage#NONE}）；
+     *                中途取消或出错时不回调
+     * @return 增量流（冷流，订阅时才发起请求）
+     */
+    public Flux<ChatDelta> stream(String message, Consumer<TokenUsage> onUsage) {
+        return Flux.usingWhen(
+                Mono.fromCallable(() -> open(message)),
+                exchange -> Flux.<ChatDelta>generate(sink -> {
+                    try {
+                        ChatDelta delta = exchange.reader().next();
+                        if (delta == null) {
+                            TokenUsage usage = exchange.reader().usage();
+                            onUsage.accept(usage != null ? usage : TokenUsage.NONE);
+                            sink.complete();
+                        } else {
+                            sink.next(delta);
+                        }
+                    } catch (IOException e) {
+                        sink.error(e);
+                    }
+                }),
+                exchange -> Mono.fromRunnable(exchange::release),
+                (exchange, error) -> Mono.fromRunnable(exchange::abort),
+                exchange -> Mono.fromRunnable(exchange::abort));
+    }
+
+    private Exchange open(String message) throws IOException {
+        StreamRequest payload = new StreamRequest(DEFAULT_MODEL,
+                List.of(new StreamMessage("user", message)), true, new StreamOptions(true));
+
+        HttpPost post = new HttpPost(baseUrl + "/chat/completions");
+        post.setHeader("Authorization", "Bearer " + apiKey);
+        post.setHeader("Accept", "text/event-stream");
+        // 压缩会让解压流按块缓冲，流式响应不压缩
+        post.setHeader("Accept-Encoding", "identity");
+        post.setEntity(new ByteArrayEntity(requestWriter.writeValueAsBytes(payload), ContentType.APPLICATION_JSON));
+
+        ClassicHttpResponse response = httpClient.executeOpen(null, post, null);
+        int code = response.getCode();
+        if (code < 200 || code >= 300 || response.getEntity() == null) {
+            response.close();
+            throw new IllegalStateException("AI服务响应异常，状态码: " + code);
+        }
+        SseDeltaReader reader = new SseDeltaReader(response.getEntity().getContent(), jsonFactory);
+        return new Exchange(post, response, reader);
+    }
+
+}
@@ -0,0 +1,285 @@
+package com.example.springmvc.ai;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * 上游SSE增量读取器
+ *
+ * 直接在字节缓冲区上切分SSE行，{@code data:} 行的JSON交给Jackson非阻塞解析器按token扫描，
+ * 只提取 {@code choices[0].delta.content} 和 {@code choices[0].delta.reasoning_content}，
+ * 以及上游在最后一个块中返回的 {@code usage}，不构建JsonNode树，也不把整行解码成字符串。
+ *
+ * 每个流一个实例，非线程安全
+ *
+ * @author example
+ * @version 1.0.0
+ */
+public class SseDeltaReader implements Closeable {
+
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * 单行最大长度，防止异常上游耗尽内存
+     */
+    private static final int MAX_LINE_LENGTH = 1024 * 1024;
+
+    private static final byte[] DATA_PREFIX = {'d', 'a', 't', 'a', ':'};
+
+    private static final byte[] DONE = {'[', 'D', 'O', 'N', 'E', ']'};
+
+    private static final String CONTENT = "content";
+
+    private static final String REASONING_CONTENT = "reasoning_content";
+
+    private static final String USAGE = "usage";
+
+    private static final String PROMPT_TOKENS = "prompt_tokens";
+
+    private static final String COMPLETION_TOKENS = "completion_tokens";
+
+    private static final String TOTAL_TOKENS = "total_tokens";
+
+    private final InputStream input;
+    private final JsonParser parser;
+    private final ByteArrayFeeder feeder;
+
+    private byte[] buffer = new byte[INITIAL_BUFFER_SIZE];
+
+    /**
+     * 未处理数据的起始位置
+     */
+    private int start;
+
+    /**
+     * 已读数据的结束位置
+     */
+    private int end;
+
+    /**
+     * 已扫描过、确认不含换行的位置
+     */
+    private int scanned;
+
+    private boolean finished;
+
+    private TokenUsage usage;
+
+    public SseDeltaReader(InputStream input, JsonFactory jsonFactory) throws IOException {
+        this.input = input;
+        this.parser = jsonFactory.createNonBlockingByteArrayParser();
+        this.feeder = (ByteArrayFeeder) parser.getNonBlockingInputFeeder();
+    }
+
+    /**
+     * 读取到下一个非空增量为止
+     *
+     * @return 增量；上游结束（[DONE]或连接关闭）时返回null
+     */
+    public ChatDelta next() throws IOException {
+        while (!finished) {
+            int lineEnd = indexOfNewline();
+            if (lineEnd < 0) {
+                if (!fill()) {
+                    // 连接关闭，处理没有换行结尾的最后一行
+                    finished = true;
+                    return start < end ? parseLine(start, end) : null;
+                }
+                continue;
+            }
+            int lineStart = start;
+            start = lineEnd + 1;
+            scanned = start;
+            ChatDelta delta = parseLine(lineStart, lineEnd);
+            if (delta != null) {
+                return delta;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return 上游返回的用量；上游未返回（或尚未读到）时为null
+     */
+    public TokenUsage usage() {
+        return usage;
+    }
+
+    @Override
+    public void close() throws IOException {
+        finished = true;
+        parser.close();
+    }
+
+    private int indexOfNewline() {
+        for (int i = scanned; i < end; i++) {
+            if (buffer[i] == '\n') {
+                return i;
+            }
+        }
+        scanned = end;
+        return -1;
+    }
+
+    /**
+     * 读取更多数据：先把未处理的半行移到缓冲区头部，仍然放不下时扩容
+     *
+     * @return 连接关闭时返回false
+     */
+    private boolean fill() throws IOException {
+        if (start > 0) {
+            System.arraycopy(buffer, start, buffer, 0, end - start);
+            end -= start;
+            scanned -= start;
+            start = 0;
+        }
+        if (end == buffer.length) {
+            if (buffer.length >= MAX_LINE_LENGTH) {
+                throw new IOException("上游SSE单行超过" + MAX_LINE_LENGTH + "字节");
+            }
+            byte[] grown = new byte[Math.min(buffer.length * 2, MAX_LINE_LENGTH)];
+            System.arraycopy(buffer, 0, grown, 0, end);
+            buffer = grown;
+        }
+        int read = input.read(buffer, end, buffer.length - end);
+        if (read < 0) {
+            return false;
+        }
+        end += read;
+        return true;
+    }
+
+    /**
+     * 解析一行 [from, to)
+     *
+     * @return 非空增量；非data行、空增量或[DONE]时返回null
+     */
+    private ChatDelta parseLine(int from, int to) throws IOException {
+        if (!startsWith(from, to, DATA_PREFIX)) {
+            return null;
+        }
+        from += DATA_PREFIX.length;
+        while (from < to && isWhitespace(buffer[from])) {
+            from++;
+        }
+        while (to > from && isWhitespace(buffer[to - 1])) {
+            to--;
+        }
+        if (from == to) {
+            return null;
+        }
+        if (to - from == DONE.length && startsWith(from, to, DONE)) {
+            finished = true;
+            return null;
+        }
+        return parseDelta(from, to);
+    }
+
+    /**
+     * 将一条JSON文档喂给非阻塞解析器，扫描到输入耗尽为止
+     */
+    private ChatDelta parseDelta(int from, int to) throws IOException {
+        feeder.feedInput(buffer, from, to);
+        String content = null;
+        String reasoning = null;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.NOT_AVAILABLE && token != null) {
+            if (token != JsonToken.FIELD_NAME) {
+                continue;
+            }
+            if (inUsage(parser.getParsingContext())) {
+                readUsageField();
+                continue;
+            }
+            if (!inFirstChoiceDelta(parser.getParsingContext())) {
+                continue;
+            }
+            String name = parser.currentName();
+            if (!CONTENT.equals(name) && !REASONING_CONTENT.equals(name)) {
+                continue;
+            }
+            if (parser.nextToken() == JsonToken.VALUE_STRING) {
+                if (CONTENT.equals(name)) {
+                    content = parser.getText();
+                } else {
+                    reasoning = parser.getText();
+                }
+            }
+        }
+        if (content == null && reasoning == null) {
+            return null;
+        }
+        ChatDelta delta = new ChatDelta(content != null ? content : "", reasoning != null ? reasoning : "");
+        return delta.token().isEmpty() ? null : delta;
+    }
+
+    /**
+     * 读取 usage 对象中的一个字段
+     */
+    private void readUsageField() throws IOException {
+        String name = parser.currentName();
+        if (parser.nextToken() != JsonToken.VALUE_NUMBER_INT) {
+            return;
+        }
+        int value = parser.getIntValue();
+        TokenUsage current = usage != null ? usage : TokenUsage.NONE;
+        if (PROMPT_TOKENS.equals(name)) {
+            usage = new TokenUsage(value, current.completionTokens(), current.totalTokens());
+        } else if (COMPLETION_TOKENS.equals(name)) {
+            usage = new TokenUsage(current.promptTokens(), value, current.totalTokens());
+        } else if (TOTAL_TOKENS.equals(name)) {
+            usage = new TokenUsage(current.promptTokens(), current.completionTokens(), value);
+        }
+    }
+
+    /**
+     * 当前上下文是否为根对象下的 usage 对象
+     */
+    private static boolean inUsage(JsonStreamContext context) {
+        JsonStreamContext root = context.getParent();
+        return context.inObject() && root != null && root.inObject() && USAGE.equals(root.getCurrentName())
+                && root.getParent() != null && root.getParent().inRoot();
+    }
+
+    /**
+     * 当前上下文是否为根对象下 choices[0].delta 对象
+     */
+    private static boolean inFirstChoiceDelta(JsonStreamContext context) {
+        JsonStreamContext choice = context.getParent();
+        if (!context.inObject() || choice == null || !choice.inObject()
+                || !"delta".equals(choice.getCurrentName())) {
+            return false;
+        }
+        JsonStreamContext choices = choice.getParent();
+        if (choices == null || !choices.inArray() || choices.getCurrentIndex() != 0) {
+            return false;
+        }
+        JsonStreamContext root = choices.getParent();
+        return root != null && root.inObject() && "choices".equals(root.getCurrentName())
+                && root.getParent() != null && root.getParent().inRoot();
+    }
+
+    private boolean startsWith(int from, int to, byte[] prefix) {
+        if (to - from < prefix.length) {
+            return false;
+        }
+        for (int i = 0; i < prefix.length; i++) {
+            if (buffer[from + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(byte b) {
+        return b == ' ' || b == '\t' || b == '\r';
+    }
+
+}
@@ -0,0 +1,68 @@
+package com.example.springmvc.ai;
+
+import java.time.Duration;
+
+/**
+ * 令牌桶
+ *
+ * 每个周期匀速补充capacity个令牌，桶满后不再累积；
+ * {@link #consume(double)} 允许事后扣减到负数（按实际用量记账），欠额补齐前 {@link #hasTokens()} 返回false
+ *
+ * @author example
+ * @version 1.0.0
+ */
+public class TokenBucket {
+
+    private final double capacity;
+    private final double refillPerNano;
+
+    private double tokens;
+    private long lastRefillNanos = System.nanoTime();
+
+    /**
+     * @param capacity 每个周期的令牌数，也是桶容量
+     * @param period 周期
+     */
+    public TokenBucket(double capacity, Duration period) {
+        this.capacity = capacity;
+        this.refillPerNano = capacity / period.toNanos();
+        this.tokens = capacity;
+    }
+
+    /**
+     * 尝试取走n个令牌
+     *
+     * @return 令牌不足时返回false，不扣减
+     */
+    public synchronized boolean tryConsume(double n) {
+        refill();
+        if (tokens < n) {
+            return false;
+        }
+        tokens -= n;
+        return true;
+    }
+
+    /**
+     * @return 是否还有余额（欠额未补齐时为false）
+     */
+    public synchronized boolean hasTokens() {
+        refill();
+        return tokens > 0;
+    }
+
+    /**
+     * 按实际用量扣减，最多欠一个周期的额度
+     */
+    public synchronized void consume(double n) {
+        refill();
+        tokens = Math.max(tokens - n, -capacity);
+    }
+
+    private void refill() {
+        long now = System.nanoTime();
+        tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+        lastRefillNanos = now;
+    }
+
+}
@@ -0,0 +1,143 @@
+package com.example.springmvc.ai;
+
+import com.example.springmvc.common.exception.TooManyRequestsException;
+import com.example.springmvc.config.AiRateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.security.Principal;
+import java.time.Duration;
+
+/**
+ * AI聊天按客户端限流
+ *
+ * 每个客户端两个令牌桶：
+ * - 请求桶：每秒请求数，调用上游前取走一个令牌
+ * - token桶：每分钟token数，调用上游前要求余额为正，调用完成后按实际用量扣减
+ *
+ * 任一桶不足时抛出 {@link TooManyRequestsException}，由全局异常处理返回429。
+ * 客户端依次按已认证用户、可信网关设置的请求头（需显式开启）、客户端IP标识，
+ * 不信任客户端自行声明的标识
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class TokenRateLimiter {
+
+    private static final String ANONYMOUS = "anonymous";
+
+    private final AiRateLimitProperties properties;
+
+    /**
+     * 客户端 -> 令牌桶，长时间不活跃的客户端被淘汰（其桶此时已补满）
+     */
+    private final Cache<String, Buckets> buckets;
+
+    private final Counter rejectedRequests;
+    private final Counter rejectedTokens;
+
+    public TokenRateLimiter(AiRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(Duration.ofMinutes(10))
+                .build();
+        this.rejectedRequests = Counter.builder("ai.ratelimit.rejected")
+                .tag("reason", "requests")
+                .description("超过每秒请求数被拒绝的调用数")
+                .register(meterRegistry);
+        this.rejectedTokens = Counter.builder("ai.ratelimit.rejected")
+                .tag("reason", "tokens")
+                .description("超过每分钟token数被拒绝的调用数")
+                .register(meterRegistry);
+        log.info("AI聊天限流初始化: enabled={}, requestsPerSecond={}, tokensPerMinute={}, trustClientHeader={}, "
+                        + "overrides={}",
+                properties.isEnabled(), properties.getRequestsPerSecond(), properties.getTokensPerMinute(),
+                properties.isTrustClientHeader(), properties.getClients().keySet());
+    }
+
+    /**
+     * 单个客户端的令牌桶，限额为0时对应的桶为null（不限制）
+     */
+    private record Buckets(TokenBucket requests, TokenBucket tokens) {
+    }
+
+    /**
+     * @return 当前请求的客户端标识；不在请求线程中时返回 anonymous
+     */
+    public String currentClientId() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return ANONYMOUS;
+        }
+        HttpServletRequest request = attributes.getRequest();
+        Principal principal = request.getUserPrincipal();
+        if (principal != null && StringUtils.hasText(principal.getName())) {
+            return principal.getName();
+        }
+        if (properties.isTrustClientHeader()) {
+            String clientId = request.getHeader(properties.getClientHeader());
+            if (StringUtils.hasText(clientId)) {
+                return clientId.trim();
+            }
+        }
+        return StringUtils.hasText(request.getRemoteAddr()) ? request.getRemoteAddr() : ANONYMOUS;
+    }
+
+    /**
+     * 调用上游前检查并占用额度
+     *
+     * @param clientId 客户端标识
+     * @throws TooManyRequestsException 超过每秒请求数或每分钟token数
+     */
+    public void acquire(String clientId) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        Buckets client = bucketsOf(clientId);
+        if (client.tokens() != null && !client.tokens().hasTokens()) {
+            rejectedTokens.increment();
+            throw new TooManyRequestsException("AI聊天token用量超过每分钟限额，请稍后重试");
+        }
+        if (client.requests() != null && !client.requests().tryConsume(1)) {
+            rejectedRequests.increment();
+            throw new TooManyRequestsException("AI聊天请求过于频繁，请稍后重试");
+        }
+    }
+
+    /**
+     * 按实际用量扣减token额度
+     *
+     * @param clientId 客户端标识
+     * @param usage 上游返回的用量
+     */
+    public void consume(String clientId, TokenUsage usage) {
+        if (!properties.isEnabled() || usage.totalTokens() <= 0) {
+            return;
+        }
+        Buckets client = bucketsOf(clientId);
+        if (client.tokens() != null) {
+            client.tokens().consume(usage.totalTokens());
+        }
+    }
+
+    private Buckets bucketsOf(String clientId) {
+        return buckets.get(clientId, id -> {
+            double requestsPerSecond = properties.requestsPerSecondOf(id);
+            long tokensPerMinute = properties.tokensPerMinuteOf(id);
+            return new Buckets(
+                    requestsPerSecond > 0 ? new TokenBucket(requestsPerSecond, Duration.ofSeconds(1)) : null,
+                    tokensPerMinute > 0 ? new TokenBucket(tokensPerMinute, Duration.ofMinutes(1)) : null);
+        });
+    }
+
+}
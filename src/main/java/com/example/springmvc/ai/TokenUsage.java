@@ -0,0 +1,19 @@
+package com.example.springmvc.ai;
+
+/**
+ * 单次上游调用的token用量
+ *
+ * @param promptTokens 输入token数
+ * @param completionTokens 输出token数
+ * @param totalTokens 总token数
+ * @author example
+ * @version 1.0.0
+ */
+public record TokenUsage(int promptTokens, int completionTokens, int totalTokens) {
+
+    /**
+     * 未命中上游（缓存命中、合并请求）时的用量
+     */
+    public static final TokenUsage NONE = new TokenUsage(0, 0, 0);
+
+}
@@ -0,0 +1,134 @@
+package com.example.springmvc.ai;
+
+import com.example.springmvc.config.AiRateLimitProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * AI聊天token用量统计
+ *
+ * 按客户端和按模型累计上游调用次数及token数，计数使用 {@link LongAdder}，
+ * 高并发下各线程写入不同的计数单元，无锁竞争。
+ * 按模型的用量导出为指标 ai.chat.tokens{model, type} 和 ai.chat.upstream.requests{model}，
+ * 通过 /actuator/metrics 查看；客户端标识（可能是IP）数量不受控且不宜公开，
+ * 按客户端的用量只保留在内存中（最多 maxClients 个、24小时未活跃的客户端被淘汰），
+ * 不作为指标维度，也不通过接口对外暴露
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Component
+public class TokenUsageRecorder {
+
+    /**
+     * 客户端用量在最后一次调用后保留的时间
+     */
+    private static final Duration CLIENT_USAGE_RETENTION = Duration.ofHours(24);
+
+    private final MeterRegistry meterRegistry;
+
+    private final Cache<String, Counters> byClient;
+    private final ConcurrentMap<String, Counters> byModel = new ConcurrentHashMap<>();
+
+    public TokenUsageRecorder(AiRateLimitProperties properties, MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.byClient = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxClients())
+                .expireAfterAccess(CLIENT_USAGE_RETENTION)
+                .build();
+    }
+
+    /**
+     * 用量快照
+     *
+     * @param requests 上游调用次数
+     * @param promptTokens 输入token数
+     * @param completionTokens 输出token数
+     */
+    public record Usage(long requests, long promptTokens, long completionTokens) {
+
+        public static final Usage NONE = new Usage(0, 0, 0);
+
+        public long totalTokens() {
+            return promptTokens + completionTokens;
+        }
+    }
+
+    /**
+     * 单个客户端或模型的累计计数
+     */
+    private static class Counters {
+
+        private final LongAdder requests = new LongAdder();
+        private final LongAdder promptTokens = new LongAdder();
+        private final LongAdder completionTokens = new LongAdder();
+
+        void add(TokenUsage usage) {
+            requests.increment();
+            promptTokens.add(usage.promptTokens());
+            completionTokens.add(usage.completionTokens());
+        }
+
+        Usage snapshot() {
+            return new Usage(requests.sum(), promptTokens.sum(), completionTokens.sum());
+        }
+    }
+
+    /**
+     * 记录一次上游调用的用量
+     *
+     * @param clientId 客户端标识
+     * @param model 模型名称
+     * @param usage 用量
+     */
+    public void record(String clientId, String model, TokenUsage usage) {
+        byClient.get(clientId, id -> new Counters()).add(usage);
+        byModel.computeIfAbsent(model, this::registerModel).add(usage);
+    }
+
+    /**
+     * @param clientId 客户端标识
+     * @return 客户端的累计用量；未记录或已淘汰时为 {@link Usage#NONE}
+     */
+    public Usage clientUsage(String clientId) {
+        Counters counters = byClient.getIfPresent(clientId);
+        return counters != null ? counters.snapshot() : Usage.NONE;
+    }
+
+    /**
+     * @param model 模型名称
+     * @return 模型的累计用量；未记录时为 {@link Usage#NONE}
+     */
+    public Usage modelUsage(String model) {
+        Counters counters = byModel.get(model);
+        return counters != null ? counters.snapshot() : Usage.NONE;
+    }
+
+    private Counters registerModel(String model) {
+        Counters counters = new Counters();
+        FunctionCounter.builder("ai.chat.upstream.requests", counters, c -> c.requests.sum())
+                .tag("model", model)
+                .description("上游聊天调用次数")
+                .register(meterRegistry);
+        FunctionCounter.builder("ai.chat.tokens", counters, c -> c.promptTokens.sum())
+                .tag("model", model)
+                .tag("type", "prompt")
+                .description("上游聊天消耗的输入token数")
+                .register(meterRegistry);
+        FunctionCounter.builder("ai.chat.tokens", counters, c -> c.completionTokens.sum())
+                .tag("model", model)
+                .tag("type", "completion")
+                .description("上游聊天消耗的输出token数")
+                .register(meterRegistry);
+        return counters;
+    }
+
+}
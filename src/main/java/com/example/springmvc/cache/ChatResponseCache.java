@@ -0,0 +1,217 @@
+package com.example.springmvc.cache;
+
+import com.example.springmvc.config.AiResponseCacheProperties;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.Normalizer;
+import java.util.HexFormat;
+import java.util.function.Supplier;
+import java.util.regex.Pattern;
+
+/**
+ * AI聊天响应缓存
+ *
+ * 以归一化后的消息、模型、temperature、maxTokens为key缓存回复内容：
+ * - 一级：本地Caffeine缓存，按容量和TTL淘汰
+ * - 二级：Redis缓存（可选），多实例共享
+ *
+ * 只缓存确定性请求（temperature为0）且正常结束（finish_reason为stop）的回复；
+ * 两级缓存都未命中时，相同请求的并发调用通过 {@link SingleFlight} 合并为一次上游调用
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class ChatResponseCache {
+
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private static final String FINISH_REASON_STOP = "stop";
+
+    private final AiResponseCacheProperties properties;
+    private final StringRedisTemplate redisTemplate;
+
+    private final Cache<Key, String> responses;
+    private final SingleFlight<Key, Generation> loads;
+
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter bypasses;
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    public ChatResponseCache(AiResponseCacheProperties properties,
+                             ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                             MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.redisTemplate = properties.isRedisEnabled() ? redisTemplateProvider.getIfAvailable() : null;
+        this.loads = new SingleFlight<>(properties.getLoadWaitTimeout());
+
+        this.responses = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getLocalTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, responses, "ai.chatResponses");
+        this.hits = counter(meterRegistry, "hit", "命中缓存（本地或Redis）的请求数");
+        this.misses = counter(meterRegistry, "miss", "未命中缓存、调用上游的请求数");
+        this.bypasses = counter(meterRegistry, "bypass", "不可缓存（非确定性）的请求数");
+        this.redisHits = Counter.builder("ai.chat.cache.redis")
+                .tag("result", "hit")
+                .description("Redis二级缓存命中次数")
+                .register(meterRegistry);
+        this.redisMisses = Counter.builder("ai.chat.cache.redis")
+                .tag("result", "miss")
+                .description("Redis二级缓存未命中次数")
+                .register(meterRegistry);
+
+        log.info("AI响应缓存初始化: enabled={}, maximumSize={}, localTtl={}, redis={}",
+                properties.isEnabled(), properties.getMaximumSize(), properties.getLocalTtl(), redisTemplate != null);
+    }
+
+    /**
+     * 缓存key：归一化后的请求参数
+     */
+    private record Key(String model, Double temperature, Integer maxTokens, String message) {
+    }
+
+    /**
+     * 回复
+     *
+     * @param content 回复内容
+     * @param finishReason 完成原因；缓存命中时为stop（只缓存正常结束的回复），
+     *                     合并到其他调用方的请求取leader上游回复的完成原因
+     */
+    public record Reply(String content, String finishReason) {
+
+        static Reply of(Generation generation) {
+            return new Reply(generation.getOutput().getText(), generation.getMetadata().getFinishReason());
+        }
+    }
+
+    /**
+     * 读取回复，不可缓存或未命中时调用loader
+     *
+     * @param message 用户消息
+     * @param options 生效的请求选项（已合并默认值）
+     * @param admission 未命中缓存时，每个调用方在调用或合并到上游调用之前执行（如按调用方限流），
+     *                  抛出异常时该调用方不调用也不等待上游
+     * @param loader 上游调用，合并的请求只执行leader的loader
+     * @return 回复
+     */
+    public Reply get(String message, ChatOptions options, Runnable admission, Supplier<Generation> loader) {
+        if (!properties.isEnabled() || !isDeterministic(options)) {
+            bypasses.increment();
+            admission.run();
+            return Reply.of(loader.get());
+        }
+        Key key = new Key(options.getModel(), options.getTemperature(), options.getMaxTokens(), normalize(message));
+        String cached = lookup(key);
+        if (cached != null) {
+            hits.increment();
+            return new Reply(cached, FINISH_REASON_STOP);
+        }
+        misses.increment();
+        admission.run();
+        Generation generation = loads.execute(key, () -> {
+            Generation loaded = loader.get();
+            if (isComplete(loaded)) {
+                put(key, loaded.getOutput().getText());
+            }
+            return loaded;
+        });
+        return Reply.of(generation);
+    }
+
+    private static boolean isDeterministic(ChatOptions options) {
+        return options != null && options.getTemperature() != null && options.getTemperature() == 0.0;
+    }
+
+    /**
+     * 只缓存正常结束的回复，截断（length）或被过滤的回复不缓存
+     */
+    private static boolean isComplete(Generation generation) {
+        String text = generation.getOutput().getText();
+        return text != null && !text.isEmpty()
+                && FINISH_REASON_STOP.equalsIgnoreCase(generation.getMetadata().getFinishReason());
+    }
+
+    /**
+     * 依次查询本地缓存和Redis缓存
+     */
+    private String lookup(Key key) {
+        String local = responses.getIfPresent(key);
+        if (local != null || redisTemplate == null) {
+            return local;
+        }
+        String remote = null;
+        try {
+            remote = redisTemplate.opsForValue().get(redisKey(key));
+        } catch (Exception e) {
+            log.warn("读取Redis响应缓存失败: error={}", e.getMessage());
+        }
+        if (remote != null) {
+            redisHits.increment();
+            responses.put(key, remote);
+        } else {
+            redisMisses.increment();
+        }
+        return remote;
+    }
+
+    private void put(Key key, String content) {
+        responses.put(key, content);
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(redisKey(key), content, properties.getRedisTtl());
+        } catch (Exception e) {
+            log.warn("写入Redis响应缓存失败: error={}", e.getMessage());
+        }
+    }
+
+    /**
+     * 归一化消息：Unicode NFC、去除首尾空白、连续空白合并为一个空格
+     */
+    static String normalize(String message) {
+        String normalized = Normalizer.normalize(message, Normalizer.Form.NFC).strip();
+        return WHITESPACE.matcher(normalized).replaceAll(" ");
+    }
+
+    /**
+     * Redis键使用请求参数的SHA-256摘要，长消息也不会产生超长键
+     */
+    private String redisKey(Key key) {
+        String raw = key.model() + '\u0000' + key.temperature() + '\u0000' + key.maxTokens() + '\u0000' + key.message();
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(raw.getBytes(StandardCharsets.UTF_8));
+            return properties.getRedisKeyPrefix() + HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Counter counter(MeterRegistry meterRegistry, String result, String description) {
+        return Counter.builder("ai.chat.cache")
+                .tag("result", result)
+                .description(description)
+                .register(meterRegistry);
+    }
+
+}
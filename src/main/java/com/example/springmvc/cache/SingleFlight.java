@@ -0,0 +1,143 @@
+package com.example.springmvc.cache;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * 请求合并（single-flight）
+ *
+ * 同一个key同一时刻只有一个调用者（leader）真正执行加载，
+ * 并发到达的其他调用者等待并共享leader的结果或异常，
+ * 避免热点数据失效瞬间大量请求同时打到数据库
+ *
+ * - 数据变更后调用 {@link #forget(Object)}，之后到达的请求不再合并到变更前开始的加载
+ * - 等待超过 waitTimeout 的调用者不再等待，自行加载
+ *
+ * @param <K> key类型
+ * @param <V> 结果类型
+ * @author example
+ * @version 1.0.0
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+
+    private final long waitTimeoutNanos;
+
+    private final LongAdder executed = new LongAdder();
+
+    private final LongAdder coalesced = new LongAdder();
+
+    private final LongAdder timedOut = new LongAdder();
+
+    /**
+     * @param waitTimeout 等待进行中加载的最长时间
+     */
+    public SingleFlight(Duration waitTimeout) {
+        this.waitTimeoutNanos = waitTimeout.toNanos();
+    }
+
+    /**
+     * 执行加载，若同一key已有进行中的加载则等待其结果
+     *
+     * @param key 合并的key
+     * @param loader 加载函数
+     * @return 加载结果
+     */
+    public V execute(K key, Supplier<V> loader) {
+        CompletableFuture<V> future = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            coalesced.increment();
+            try {
+                return await(existing);
+            } catch (TimeoutException e) {
+                timedOut.increment();
+                return loader.get();
+            }
+        }
+
+        executed.increment();
+        try {
+            V value = loader.get();
+            future.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    /**
+     * 放弃合并到指定key进行中的加载：之后到达的请求开始新的加载，已在等待的请求不受影响
+     *
+     * @param key 合并的key
+     */
+    public void forget(K key) {
+        inFlight.remove(key);
+    }
+
+    /**
+     * 放弃合并到所有进行中的加载
+     */
+    public void forgetAll() {
+        inFlight.clear();
+    }
+
+    /**
+     * @return 实际执行加载的次数
+     */
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    /**
+     * @return 被合并（共享他人结果）的请求次数
+     */
+    public long coalescedCount() {
+        return coalesced.sum();
+    }
+
+    /**
+     * @return 等待超时后自行加载的次数
+     */
+    public long timedOutCount() {
+        return timedOut.sum();
+    }
+
+    /**
+     * @return 当前进行中的加载数
+     */
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> future) throws TimeoutException {
+        try {
+            return future.get(waitTimeoutNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("等待加载结果时被中断", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+}
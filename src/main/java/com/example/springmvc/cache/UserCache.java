@@ -0,0 +1,402 @@
+package com.example.springmvc.cache;
+
+import com.example.springmvc.config.UserCacheProperties;
+import com.example.springmvc.dto.UserResponse;
+import com.example.springmvc.event.UserChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+/**
+ * 用户读穿透缓存
+ *
+ * 两级缓存结构：
+ * - 一级：本地Caffeine缓存，按容量和TTL淘汰
+ * - 二级：Redis缓存（可选），多实例共享
+ *
+ * 用户名到ID的映射仅保存在本地，命中后会校验用户名一致性，
+ * 写操作通过 {@link UserChangedEvent} 在事务提交后失效缓存；
+ * 两级缓存都未命中时，同一用户的并发加载通过 {@link SingleFlight} 合并为一次数据库查询
+ *
+ * 回填带版本校验：加载前记录失效代数，加载期间该用户被失效过时放弃回填，
+ * 避免事务提交前读到的旧值在失效之后写回缓存。
+ * 缓存保存和返回的都是副本，调用方修改返回值不会影响缓存
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class UserCache {
+
+    /**
+     * 失效代数的分段数，ID按哈希落入分段；同分段其他用户的失效只会让回填被多放弃一次
+     */
+    private static final int GENERATION_STRIPES = 1024;
+
+    private final UserCacheProperties properties;
+    private final ObjectMapper objectMapper;
+    private final StringRedisTemplate redisTemplate;
+
+    private final Cache<Long, UserResponse> usersById;
+    private final Cache<String, Long> idsByUsername;
+
+    /**
+     * 按ID分段的失效代数，每次失效递增
+     */
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+
+    /**
+     * 全局失效代数，用于加载前还不知道ID的按用户名加载
+     */
+    private final AtomicLong globalGeneration = new AtomicLong();
+
+    private final SingleFlight<Long, UserResponse> loadsById;
+    private final SingleFlight<String, UserResponse> loadsByUsername;
+
+    private final Counter redisHits;
+    private final Counter redisMisses;
+
+    public UserCache(UserCacheProperties properties,
+                     ObjectMapper objectMapper,
+                     ObjectProvider<StringRedisTemplate> redisTemplateProvider,
+                     MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        this.redisTemplate = properties.isRedisEnabled() ? redisTemplateProvider.getIfAvailable() : null;
+        this.loadsById = new SingleFlight<>(properties.getLoadWaitTimeout());
+        this.loadsByUsername = new SingleFlight<>(properties.getLoadWaitTimeout());
+
+        this.usersById = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getLocalTtl())
+                .recordStats()
+                .build();
+        this.idsByUsername = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getLocalTtl())
+                .recordStats()
+                .build();
+
+        // 命中、未命中、淘汰等指标由Caffeine统计导出
+        CaffeineCacheMetrics.monitor(meterRegistry, usersById, "user.byId");
+        CaffeineCacheMetrics.monitor(meterRegistry, idsByUsername, "user.idByUsername");
+        this.redisHits = Counter.builder("user.cache.redis")
+                .tag("result", "hit")
+                .description("Redis二级缓存命中次数")
+                .register(meterRegistry);
+        this.redisMisses = Counter.builder("user.cache.redis")
+                .tag("result", "miss")
+                .description("Redis二级缓存未命中次数")
+                .register(meterRegistry);
+        registerSingleFlightMetrics(meterRegistry, loadsById, "byId");
+        registerSingleFlightMetrics(meterRegistry, loadsByUsername, "byUsername");
+
+        log.info("用户缓存初始化: maximumSize={}, localTtl={}, redis={}",
+                properties.getMaximumSize(), properties.getLocalTtl(), redisTemplate != null);
+    }
+
+    /**
+     * 根据ID读取用户，未命中时调用loader并回填缓存
+     *
+     * @param id 用户ID
+     * @param loader 数据库加载函数
+     * @return 用户信息
+     */
+    public UserResponse getById(Long id, Function<Long, UserResponse> loader) {
+        UserResponse cached = lookup(id);
+        if (cached != null) {
+            return copy(cached);
+        }
+        return copy(loadsById.execute(id, () -> {
+            long generation = generation(id);
+            UserResponse loaded = loader.apply(id);
+            put(loaded, () -> generation(id) == generation);
+            return loaded;
+        }));
+    }
+
+    /**
+     * 根据用户名读取用户，未命中时调用loader并回填缓存
+     *
+     * @param username 用户名
+     * @param loader 数据库加载函数
+     * @return 用户信息
+     */
+    public UserResponse getByUsername(String username, Function<String, UserResponse> loader) {
+        Long id = idsByUsername.getIfPresent(username);
+        if (id != null) {
+            UserResponse cached = lookup(id);
+            if (cached != null && username.equals(cached.getUsername())) {
+                return copy(cached);
+            }
+            idsByUsername.invalidate(username);
+        }
+        return copy(loadsByUsername.execute(username, () -> {
+            long generation = globalGeneration.get();
+            UserResponse loaded = loader.apply(username);
+            put(loaded, () -> globalGeneration.get() == generation);
+            return loaded;
+        }));
+    }
+
+    /**
+     * 批量读取用户：依次查询本地缓存和Redis缓存（一次MGET），仍未命中的ID调用loader批量加载并回填
+     *
+     * @param ids 用户ID集合（不含null）
+     * @param loader 批量加载函数，不存在的ID不在结果中
+     * @return 找到的用户，不存在的ID不在结果中
+     */
+    public Map<Long, UserResponse> getAll(Collection<Long> ids, Function<List<Long>, List<UserResponse>> loader) {
+        Map<Long, UserResponse> found = new HashMap<>(usersById.getAllPresent(ids));
+        List<Long> misses = ids.stream().filter(id -> !found.containsKey(id)).distinct().toList();
+        if (!misses.isEmpty() && redisTemplate != null) {
+            found.putAll(getAllRedis(misses));
+            misses = misses.stream().filter(id -> !found.containsKey(id)).toList();
+        }
+        if (!misses.isEmpty()) {
+            Map<Long, Long> generations = new HashMap<>();
+            misses.forEach(id -> generations.put(id, generation(id)));
+            for (UserResponse loaded : loader.apply(misses)) {
+                Long generation = generations.get(loaded.getId());
+                if (generation != null) {
+                    put(loaded, () -> generation(loaded.getId()) == generation);
+                }
+                found.put(loaded.getId(), loaded);
+            }
+        }
+        Map<Long, UserResponse> result = new HashMap<>();
+        found.forEach((id, user) -> result.put(id, copy(user)));
+        return result;
+    }
+
+    private Map<Long, UserResponse> getAllRedis(List<Long> ids) {
+        Map<Long, UserResponse> found = new HashMap<>();
+        Map<Long, Long> generations = new HashMap<>();
+        ids.forEach(id -> generations.put(id, generation(id)));
+        try {
+            List<String> keys = ids.stream().map(this::redisKey).toList();
+            List<String> values = redisTemplate.opsForValue().multiGet(keys);
+            for (int i = 0; values != null && i < ids.size(); i++) {
+                if (values.get(i) == null) {
+                    redisMisses.increment();
+                    continue;
+                }
+                redisHits.increment();
+                UserResponse user = objectMapper.readValue(values.get(i), UserResponse.class);
+                long generation = generations.get(ids.get(i));
+                putLocal(user, () -> generation(user.getId()) == generation);
+                found.put(user.getId(), user);
+            }
+        } catch (Exception e) {
+            log.warn("批量读取Redis用户缓存失败: error={}", e.getMessage());
+        }
+        return found;
+    }
+
+    /**
+     * 加载期间未被失效时写入两级缓存
+     *
+     * @param user 用户信息
+     * @param unchanged 加载开始后是否未发生失效（与加载前记录的失效代数比较）
+     */
+    private void put(UserResponse user, BooleanSupplier unchanged) {
+        if (user == null || user.getId() == null) {
+            return;
+        }
+        if (!putLocal(user, unchanged)) {
+            return;
+        }
+        putRedis(user);
+        // 写Redis与失效不是原子的：写入后发现已被失效，删掉刚写入的旧值
+        if (!unchanged.getAsBoolean()) {
+            deleteRedis(user.getId());
+        }
+    }
+
+    /**
+     * 失效与回填在同一个key上串行执行（ConcurrentHashMap.compute），校验和写入之间不会插入失效
+     *
+     * @return 是否写入
+     */
+    private boolean putLocal(UserResponse user, BooleanSupplier unchanged) {
+        Long id = user.getId();
+        UserResponse stored = copy(user);
+        boolean[] written = {false};
+        usersById.asMap().compute(id, (key, current) -> {
+            if (!unchanged.getAsBoolean()) {
+                return current;
+            }
+            written[0] = true;
+            return stored;
+        });
+        if (written[0]) {
+            idsByUsername.put(user.getUsername(), id);
+        }
+        return written[0];
+    }
+
+    /**
+     * 失效指定用户的两级缓存
+     *
+     * @param id 用户ID
+     */
+    public void evict(Long id) {
+        evictLocal(id);
+        deleteRedis(id);
+    }
+
+    /**
+     * 仅失效本地缓存
+     *
+     * 同时放弃合并到变更前开始的加载，之后的读取重新加载；
+     * 按用户名加载前不知道ID，全部放弃
+     *
+     * @param id 用户ID
+     */
+    public void evictLocal(Long id) {
+        UserResponse[] removed = {null};
+        usersById.asMap().compute(id, (key, current) -> {
+            generations.incrementAndGet(stripe(key));
+            globalGeneration.incrementAndGet();
+            removed[0] = current;
+            return null;
+        });
+        loadsById.forget(id);
+        loadsByUsername.forgetAll();
+        if (removed[0] != null) {
+            idsByUsername.asMap().remove(removed[0].getUsername(), id);
+        }
+    }
+
+    /**
+     * 用户变更事务提交后失效缓存
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        log.debug("用户变更，失效缓存: {}", event);
+        event.getUserIds().forEach(this::evictLocal);
+        if (redisTemplate != null) {
+            try {
+                redisTemplate.delete(event.getUserIds().stream().map(this::redisKey).toList());
+            } catch (Exception e) {
+                log.warn("批量删除Redis用户缓存失败: ids={}, error={}", event.getUserIds().size(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 依次查询本地缓存和Redis缓存
+     */
+    private UserResponse lookup(Long id) {
+        UserResponse local = usersById.getIfPresent(id);
+        if (local != null || redisTemplate == null) {
+            return local;
+        }
+        long generation = generation(id);
+        UserResponse remote = getRedis(id);
+        if (remote != null) {
+            redisHits.increment();
+            putLocal(remote, () -> generation(id) == generation);
+        } else {
+            redisMisses.increment();
+        }
+        return remote;
+    }
+
+    private UserResponse getRedis(Long id) {
+        try {
+            String json = redisTemplate.opsForValue().get(redisKey(id));
+            return json != null ? objectMapper.readValue(json, UserResponse.class) : null;
+        } catch (Exception e) {
+            log.warn("读取Redis用户缓存失败: id={}, error={}", id, e.getMessage());
+            return null;
+        }
+    }
+
+    private void deleteRedis(Long id) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.delete(redisKey(id));
+        } catch (Exception e) {
+            log.warn("删除Redis用户缓存失败: id={}, error={}", id, e.getMessage());
+        }
+    }
+
+    private void putRedis(UserResponse user) {
+        if (redisTemplate == null) {
+            return;
+        }
+        try {
+            redisTemplate.opsForValue().set(redisKey(user.getId()),
+                    objectMapper.writeValueAsString(user), properties.getRedisTtl());
+        } catch (Exception e) {
+            log.warn("写入Redis用户缓存失败: id={}, error={}", user.getId(), e.getMessage());
+        }
+    }
+
+    private static void registerSingleFlightMetrics(MeterRegistry meterRegistry,
+                                                    SingleFlight<?, ?> singleFlight, String lookup) {
+        FunctionCounter.builder("user.cache.loads", singleFlight, SingleFlight::executedCount)
+                .tag("lookup", lookup)
+                .tag("result", "executed")
+                .description("实际访问数据库的加载次数")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.cache.loads", singleFlight, SingleFlight::coalescedCount)
+                .tag("lookup", lookup)
+                .tag("result", "coalesced")
+                .description("被合并到进行中加载的请求次数")
+                .register(meterRegistry);
+        FunctionCounter.builder("user.cache.loads", singleFlight, SingleFlight::timedOutCount)
+                .tag("lookup", lookup)
+                .tag("result", "timeout")
+                .description("等待进行中加载超时后自行访问数据库的次数")
+                .register(meterRegistry);
+        Gauge.builder("user.cache.loads.inflight", singleFlight, SingleFlight::inFlightCount)
+                .tag("lookup", lookup)
+                .description("进行中的数据库加载数")
+                .register(meterRegistry);
+    }
+
+    private long generation(Long id) {
+        return generations.get(stripe(id));
+    }
+
+    private static int stripe(Long id) {
+        return Math.floorMod(Long.hashCode(id), GENERATION_STRIPES);
+    }
+
+    private static UserResponse copy(UserResponse user) {
+        if (user == null) {
+            return null;
+        }
+        return new UserResponse(user.getId(), user.getUsername(), user.getEmail(), user.getRealName(),
+                user.getPhone(), user.getStatus(), user.getStatusText(), user.getCreatedAt(), user.getUpdatedAt());
+    }
+
+    private String redisKey(Long id) {
+        return properties.getRedisKeyPrefix() + id;
+    }
+
+}
@@ -0,0 +1,147 @@
+package com.example.springmvc.cache;
+
+import com.example.springmvc.config.UserCacheInvalidationConfig;
+import com.example.springmvc.config.UserCacheProperties;
+import com.example.springmvc.event.RemoteUserChangedEvent;
+import com.example.springmvc.event.UserChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 用户缓存跨节点失效总线
+ *
+ * 本节点的用户变更先在内存中按用户ID合并，
+ * 每个发送窗口（或攒满一批）后通过fanout交换机广播一次；
+ * 每个节点绑定独立的匿名队列，收到其他节点的消息后失效本地缓存，
+ * 并发布 {@link RemoteUserChangedEvent} 供搜索索引等本地派生数据重新读取。
+ * 失效是幂等的，消息只携带用户ID，不依赖各节点时钟排序
+ *
+ * 由 {@link UserCacheInvalidationConfig} 声明，app.cache.user.invalidation.enabled 开启时生效
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+public class UserCacheInvalidationBus {
+
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final RabbitTemplate rabbitTemplate;
+    private final UserCache userCache;
+    private final UserCacheProperties.Invalidation properties;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ScheduledExecutorService scheduler;
+
+    /**
+     * 待发送的变更用户ID
+     */
+    private Set<Long> pending = new LinkedHashSet<>();
+
+    public UserCacheInvalidationBus(RabbitTemplate rabbitTemplate,
+                                    UserCache userCache,
+                                    UserCacheProperties cacheProperties,
+                                    ObjectMapper objectMapper,
+                                    ApplicationEventPublisher eventPublisher) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.userCache = userCache;
+        this.properties = cacheProperties.getInvalidation();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "user-cache-invalidation");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getFlushInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.MILLISECONDS);
+        log.info("用户缓存失效总线已启动: nodeId={}, flushInterval={}", nodeId, properties.getFlushInterval());
+    }
+
+    /**
+     * 用户变更事务提交后登记待广播的失效
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        boolean full;
+        synchronized (this) {
+            pending.addAll(event.getUserIds());
+            full = pending.size() >= properties.getMaxBatchSize();
+        }
+        if (full) {
+            scheduler.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * 接收其他节点广播的失效消息
+     */
+    @RabbitListener(queues = "#{userCacheInvalidationQueue.name}", ackMode = "AUTO")
+    public void onInvalidation(Message amqpMessage) throws IOException {
+        UserInvalidationMessage message = objectMapper.readValue(amqpMessage.getBody(), UserInvalidationMessage.class);
+        if (nodeId.equals(message.getOrigin()) || message.getUserIds() == null) {
+            return;
+        }
+        log.debug("收到用户缓存失效广播: origin={}, size={}", message.getOrigin(), message.getUserIds().size());
+        message.getUserIds().forEach(userCache::evictLocal);
+        eventPublisher.publishEvent(new RemoteUserChangedEvent(message.getUserIds()));
+    }
+
+    /**
+     * 发送当前窗口内合并后的变更
+     */
+    void flush() throws IOException {
+        List<Long> batch;
+        synchronized (this) {
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending);
+            pending = new LinkedHashSet<>();
+        }
+        int size = properties.getMaxBatchSize();
+        for (int from = 0; from < batch.size(); from += size) {
+            List<Long> chunk = batch.subList(from, Math.min(from + size, batch.size()));
+            Message message = MessageBuilder
+                    .withBody(objectMapper.writeValueAsBytes(new UserInvalidationMessage(nodeId, chunk)))
+                    .setContentType(MessageProperties.CONTENT_TYPE_JSON)
+                    .build();
+            rabbitTemplate.send(UserCacheInvalidationConfig.USER_CACHE_INVALIDATION_EXCHANGE, "", message);
+        }
+        log.debug("广播用户缓存失效: size={}", batch.size());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        flushQuietly();
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            // 广播失败时其他节点依赖本地缓存TTL兜底
+            log.warn("广播用户缓存失效失败: {}", e.getMessage());
+        }
+    }
+
+}
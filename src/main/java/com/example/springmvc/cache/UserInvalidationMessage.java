@@ -0,0 +1,32 @@
+package com.example.springmvc.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 用户缓存失效广播消息
+ * 
+ * 一条消息携带一批合并（去重）后的变更用户ID
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserInvalidationMessage {
+
+    /**
+     * 发送节点标识，节点收到自己发出的消息时忽略
+     */
+    private String origin;
+
+    /**
+     * 变更的用户ID
+     */
+    private List<Long> userIds;
+
+}
@@ -2,7 +2,9 @@ package com.example.springmvc.common.exception;
 
 import com.example.springmvc.common.response.ApiResponse;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.BindException;
 import org.springframework.validation.FieldError;
@@ -56,6 +58,31 @@ public class GlobalExceptionHandler {
                 .body(ApiResponse.error(409, e.getMessage()));
     }
 
+    /**
+     * 处理请求过多异常
+     * 显式指定JSON响应类型，SSE等接口的客户端（Accept: text/event-stream）也能收到429
+     */
+    @ExceptionHandler(TooManyRequestsException.class)
+    public ResponseEntity<ApiResponse<Object>> handleTooManyRequestsException(TooManyRequestsException e) {
+        log.warn("请求过多: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ApiResponse.error(429, e.getMessage()));
+    }
+
+    /**
+     * 处理服务不可用异常
+     */
+    @ExceptionHandler(ServiceUnavailableException.class)
+    public ResponseEntity<ApiResponse<Object>> handleServiceUnavailableException(ServiceUnavailableException e) {
+        log.warn("服务不可用: {}", e.getMessage());
+        return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(e.getRetryAfterSeconds()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(ApiResponse.error(503, e.getMessage()));
+    }
+
     /**
      * 处理参数校验异常 - @Valid注解
      */
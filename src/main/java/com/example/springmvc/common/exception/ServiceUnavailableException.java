@@ -0,0 +1,27 @@
+package com.example.springmvc.common.exception;
+
+/**
+ * 服务不可用异常
+ * 
+ * 当依赖的外部服务熔断或并发已满、暂时无法处理请求时抛出此异常
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+public class ServiceUnavailableException extends BusinessException {
+
+    /**
+     * 建议客户端重试的等待秒数
+     */
+    private final long retryAfterSeconds;
+
+    public ServiceUnavailableException(String message, long retryAfterSeconds) {
+        super(503, message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+
+    public long getRetryAfterSeconds() {
+        return retryAfterSeconds;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.example.springmvc.common.exception;
+
+/**
+ * 请求过多异常
+ * 
+ * 当并发数或调用频率超过限制时抛出此异常
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+public class TooManyRequestsException extends BusinessException {
+
+    public TooManyRequestsException(String message) {
+        super(429, message);
+    }
+
+}
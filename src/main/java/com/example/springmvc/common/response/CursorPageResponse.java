@@ -0,0 +1,57 @@
+package com.example.springmvc.common.response;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 游标分页响应结果封装类
+ * 
+ * 用于键集（seek）分页：不返回总数和总页数，
+ * 通过不透明的游标继续获取下一页
+ * 
+ * @param <T> 数据类型
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageResponse<T> {
+
+    /**
+     * 数据列表
+     */
+    private List<T> content;
+
+    /**
+     * 每页大小
+     */
+    private Integer size;
+
+    /**
+     * 下一页游标，没有下一页时为null
+     */
+    private String nextCursor;
+
+    /**
+     * 是否有下一页
+     */
+    private Boolean hasNext;
+
+    /**
+     * 创建游标分页响应
+     * 
+     * @param content 数据列表
+     * @param size 每页大小
+     * @param nextCursor 下一页游标
+     * @param <T> 数据类型
+     * @return 游标分页响应
+     */
+    public static <T> CursorPageResponse<T> of(List<T> content, Integer size, String nextCursor) {
+        return new CursorPageResponse<>(content, size, nextCursor, nextCursor != null);
+    }
+
+}
@@ -0,0 +1,52 @@
+package com.example.springmvc.common.utils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 分页游标工具类
+ * 
+ * 将键集分页的定位信息编码为不透明的URL安全字符串
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+public class CursorUtil {
+
+    private static final String SEPARATOR = "\n";
+
+    /**
+     * 编码游标
+     * 
+     * @param parts 游标各组成部分
+     * @return URL安全的Base64字符串
+     */
+    public static String encode(String... parts) {
+        String raw = String.join(SEPARATOR, parts);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * 解码游标
+     * 
+     * @param cursor 游标字符串
+     * @param expectedParts 期望的组成部分数量
+     * @return 游标各组成部分
+     * @throws IllegalArgumentException 游标格式不正确时抛出
+     */
+    public static List<String> decode(String cursor, int expectedParts) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, -1);
+            if (parts.length != expectedParts) {
+                throw new IllegalArgumentException("无效的分页游标");
+            }
+            return Arrays.asList(parts);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.example.springmvc.common.utils;
+
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * 线程工具类
+ * 
+ * 项目按JDK 17编译，虚拟线程相关API通过反射调用，
+ * 运行在JDK 21+时可直接使用虚拟线程
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+public class ThreadUtil {
+
+    /**
+     * 当前运行时是否支持虚拟线程
+     * 
+     * @return JDK 21+ 返回true
+     */
+    public static boolean isVirtualThreadSupported() {
+        return Runtime.version().feature() >= 21;
+    }
+
+    /**
+     * 创建每个任务一个虚拟线程的执行器
+     * 
+     * @return 执行器；运行时不支持虚拟线程时返回空
+     */
+    public static Optional<ExecutorService> newVirtualThreadPerTaskExecutor() {
+        if (!isVirtualThreadSupported()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of((ExecutorService) Executors.class
+                    .getMethod("newVirtualThreadPerTaskExecutor")
+                    .invoke(null));
+        } catch (ReflectiveOperationException e) {
+            return Optional.empty();
+        }
+    }
+
+}
@@ -1,21 +1,30 @@
 package com.example.springmvc.config;
 
+import com.example.springmvc.ai.AiCallGuard;
+import com.example.springmvc.common.exception.BusinessException;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.metadata.DefaultUsage;
 import org.springframework.ai.chat.model.ChatModel;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.http.HttpEntity;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.MediaType;
+import org.springframework.web.client.RestClientException;
 import org.springframework.web.client.RestTemplate;
 
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 /**
  * AI配置类
@@ -38,97 +47,127 @@ public class AiConfig {
         System.out.println("🔍 环境变量 SILICONFLOW_API_KEY: " + System.getenv("SILICONFLOW_API_KEY"));
     }
 
-    @Bean
-    public RestTemplate restTemplate() {
-        return new RestTemplate();
-    }
-
     /**
-     * 提供ChatModel bean，使用真实的SiliconFlow API
+     * 提供ChatModel bean，使用真实的SiliconFlow API（连接池见 AiHttpClientConfig）
      */
     @Bean
-    public ChatModel chatModel(RestTemplate restTemplate) {
-        return new SiliconFlowChatModel(apiKey, baseUrl, restTemplate);
+    public ChatModel chatModel(RestTemplate aiRestTemplate, AiCallGuard callGuard, ObjectMapper objectMapper) {
+        return new SiliconFlowChatModel(apiKey, baseUrl, aiRestTemplate, callGuard, objectMapper);
     }
 
     /**
      * SiliconFlow API实现的ChatModel
      */
     private static class SiliconFlowChatModel implements ChatModel {
+
+        /**
+         * 默认选项，请求未指定的选项取此处的值
+         */
+        private static final ChatOptions DEFAULT_OPTIONS = ChatOptions.builder()
+                .model("Qwen/QwQ-32B")
+                .temperature(0.7)
+                .maxTokens(1000)
+                .build();
+
         private final String apiKey;
         private final String baseUrl;
         private final RestTemplate restTemplate;
-        private final ObjectMapper objectMapper;
+        private final AiCallGuard callGuard;
 
-        public SiliconFlowChatModel(String apiKey, String baseUrl, RestTemplate restTemplate) {
+        /**
+         * 由共享ObjectMapper派生，线程安全，可复用
+         */
+        private final ObjectWriter requestWriter;
+        private final ObjectReader responseReader;
+
+        public SiliconFlowChatModel(String apiKey, String baseUrl, RestTemplate restTemplate, AiCallGuard callGuard,
+                                    ObjectMapper objectMapper) {
             this.apiKey = apiKey;
             this.baseUrl = baseUrl;
             this.restTemplate = restTemplate;
-            this.objectMapper = new ObjectMapper();
+            this.callGuard = callGuard;
+            this.requestWriter = objectMapper.writerFor(SiliconFlowRequest.class);
+            this.responseReader = objectMapper.readerFor(SiliconFlowResponse.class);
+        }
+
+        @Override
+        public ChatOptions getDefaultOptions() {
+            return DEFAULT_OPTIONS.copy();
         }
 
         @Override
         public org.springframework.ai.chat.model.ChatResponse call(org.springframework.ai.chat.prompt.Prompt prompt) {
+            // 获取用户输入的消息
+            String userMessage = prompt.getInstructions().get(0).getText();
+
+            // 构建请求体，按照OpenAI兼容格式
+            ChatOptions options = prompt.getOptions();
+            SiliconFlowRequest requestBody = new SiliconFlowRequest();
+            requestBody.model = option(options, ChatOptions::getModel);
+            requestBody.messages = List.of(new SiliconFlowMessage("user", userMessage));
+            requestBody.temperature = option(options, ChatOptions::getTemperature);
+            requestBody.maxTokens = option(options, ChatOptions::getMaxTokens);
+
+            // 请求体直接序列化为UTF-8字节，带上Content-Length，避免分块传输
+            byte[] requestJson;
             try {
-                // 获取用户输入的消息
-                String userMessage = prompt.getInstructions().get(0).getText();
-
-                // 构建请求头，按照SiliconFlow API规范
-                HttpHeaders headers = new HttpHeaders();
-                headers.set("Authorization", "Bearer " + apiKey);
-                headers.set("Content-Type", "application/json");
-
-                // 构建请求体，按照OpenAI兼容格式
-                SiliconFlowRequest requestBody = new SiliconFlowRequest();
-                requestBody.model = "Qwen/QwQ-32B";
-                requestBody.messages = List.of(new SiliconFlowMessage("user", userMessage));
-                requestBody.temperature = 0.7;
-                requestBody.maxTokens = 1000;
-
-                String requestJson = objectMapper.writeValueAsString(requestBody);
-                HttpEntity<String> entity = new HttpEntity<>(requestJson, headers);
-
-                // 调用SiliconFlow API
-                String apiUrl = baseUrl + "/chat/completions";
-                ResponseEntity<String> response = restTemplate.exchange(
-                    apiUrl, HttpMethod.POST, entity, String.class);
-
-                // 解析响应
-                if (response.getStatusCode().is2xxSuccessful()) {
-                    SiliconFlowResponse siliconFlowResponse = objectMapper.readValue(
-                        response.getBody(), SiliconFlowResponse.class);
-                    
-                    String responseContent = siliconFlowResponse.choices.get(0).message.content;
-                    
-                    return new org.springframework.ai.chat.model.ChatResponse(
-                        List.of(
-                            new org.springframework.ai.chat.model.Generation(
-                                new org.springframework.ai.chat.messages.AssistantMessage(responseContent)
-                            )
-                        )
-                    );
-                } else {
-                    // API调用失败，返回错误信息
-                    String errorMessage = "抱歉，AI服务暂时不可用。错误代码：" + response.getStatusCode();
-                    return new org.springframework.ai.chat.model.ChatResponse(
-                        List.of(
-                            new org.springframework.ai.chat.model.Generation(
-                                new org.springframework.ai.chat.messages.AssistantMessage(errorMessage)
-                            )
-                        )
-                    );
-                }
-            } catch (Exception e) {
-                // 异常处理
-                String errorMessage = "抱歉，AI服务出现错误：" + e.getMessage();
-                return new org.springframework.ai.chat.model.ChatResponse(
-                    List.of(
-                        new org.springframework.ai.chat.model.Generation(
-                            new org.springframework.ai.chat.messages.AssistantMessage(errorMessage)
-                        )
-                    )
-                );
+                requestJson = requestWriter.writeValueAsBytes(requestBody);
+            } catch (JsonProcessingException e) {
+                throw new BusinessException("AI请求序列化失败: " + e.getOriginalMessage(), e);
+            }
+
+            // 调用SiliconFlow API（超时、并发隔离、重试和熔断见 AiCallGuard），失败时抛出异常；
+            // 响应直接从响应流反序列化，不经过中间字符串
+            String apiUrl = baseUrl + "/chat/completions";
+            SiliconFlowResponse siliconFlowResponse = callGuard.execute(() -> restTemplate.execute(
+                apiUrl, HttpMethod.POST,
+                request -> {
+                    // 按照SiliconFlow API规范设置请求头
+                    request.getHeaders().setBearerAuth(apiKey);
+                    request.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                    request.getHeaders().setContentLength(requestJson.length);
+                    request.getBody().write(requestJson);
+                },
+                response -> {
+                    try {
+                        return responseReader.readValue(response.getBody());
+                    } catch (JsonProcessingException e) {
+                        // 解析失败不是网络错误，不应被当作可重试的I/O异常
+                        throw new RestClientException("AI服务响应解析失败: " + e.getOriginalMessage(), e);
+                    }
+                }));
+            if (siliconFlowResponse == null || siliconFlowResponse.choices == null
+                    || siliconFlowResponse.choices.isEmpty()) {
+                throw new BusinessException(502, "AI服务响应为空");
             }
+
+            SiliconFlowChoice choice = siliconFlowResponse.choices.get(0);
+            String responseContent = choice.message.content;
+
+            // 上游返回的实际用量，用于用量统计和按token限流
+            SiliconFlowUsage usage = siliconFlowResponse.usage != null ? siliconFlowResponse.usage : new SiliconFlowUsage();
+            ChatResponseMetadata metadata = ChatResponseMetadata.builder()
+                .model(siliconFlowResponse.model != null ? siliconFlowResponse.model : requestBody.model)
+                .usage(new DefaultUsage(usage.promptTokens, usage.completionTokens, usage.totalTokens))
+                .build();
+
+            return new org.springframework.ai.chat.model.ChatResponse(
+                List.of(
+                    new org.springframework.ai.chat.model.Generation(
+                        new org.springframework.ai.chat.messages.AssistantMessage(responseContent),
+                        ChatGenerationMetadata.builder().finishReason(choice.finishReason).build()
+                    )
+                ),
+                metadata
+            );
+        }
+
+        /**
+         * 取请求选项，未指定时取默认值
+         */
+        private static <T> T option(ChatOptions options, Function<ChatOptions, T> getter) {
+            T value = options != null ? getter.apply(options) : null;
+            return value != null ? value : getter.apply(DEFAULT_OPTIONS);
         }
     }
 
@@ -157,6 +196,7 @@ public class AiConfig {
     // SiliconFlow API响应的DTO类
     @JsonIgnoreProperties(ignoreUnknown = true)
     private static class SiliconFlowResponse {
+        public String model;
         public List<SiliconFlowChoice> choices;
         public SiliconFlowUsage usage;
     }
@@ -0,0 +1,139 @@
+package com.example.springmvc.config;
+
+import com.example.springmvc.ai.AiCallGuard;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.hc5.PoolingHttpClientConnectionManagerMetricsBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.hc.client5.http.config.ConnectionConfig;
+import org.apache.hc.client5.http.config.RequestConfig;
+import org.apache.hc.client5.http.impl.DefaultConnectionKeepAliveStrategy;
+import org.apache.hc.client5.http.impl.classic.CloseableHttpClient;
+import org.apache.hc.client5.http.impl.classic.HttpClientBuilder;
+import org.apache.hc.client5.http.impl.classic.HttpClients;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManager;
+import org.apache.hc.client5.http.impl.io.PoolingHttpClientConnectionManagerBuilder;
+import org.apache.hc.client5.http.protocol.HttpClientContext;
+import org.apache.hc.core5.http.HttpResponse;
+import org.apache.hc.core5.http.protocol.HttpContext;
+import org.apache.hc.core5.util.TimeValue;
+import org.apache.hc.core5.util.Timeout;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.HttpComponentsClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+
+/**
+ * AI接口HTTP客户端配置
+ * 
+ * 所有对SiliconFlow的调用（流式和非流式）共享同一个连接池，复用TCP/TLS连接；
+ * 连接池指标以 httpcomponents.httpclient.pool.* 导出（tag: httpclient=siliconflow）
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Configuration
+public class AiHttpClientConfig {
+
+    /**
+     * AI接口连接池
+     *
+     * 每个进行中的流独占一个连接，非流式调用最多占用并发隔离上限个连接；
+     * 连接数不足以同时容纳两者时按需调大，避免长时间的流占满连接池后，
+     * 通过了限流的流或非流式调用在等待连接超时后才失败
+     */
+    @Bean
+    public PoolingHttpClientConnectionManager aiConnectionManager(AiHttpClientProperties properties,
+                                                                  AiStreamProperties streamProperties,
+                                                                  AiResilienceProperties resilienceProperties,
+                                                                  MeterRegistry meterRegistry) {
+        int required = streamProperties.getMaxConcurrentStreams()
+                + resilienceProperties.getBulkhead().getMaxConcurrentCalls();
+        int maxConnections = atLeast("max-connections", properties.getMaxConnections(), required);
+        int maxConnectionsPerRoute = atLeast("max-connections-per-route", properties.getMaxConnectionsPerRoute(), required);
+        PoolingHttpClientConnectionManager connectionManager = PoolingHttpClientConnectionManagerBuilder.create()
+                .setMaxConnTotal(maxConnections)
+                .setMaxConnPerRoute(maxConnectionsPerRoute)
+                .setDefaultConnectionConfig(ConnectionConfig.custom()
+                        .setConnectTimeout(Timeout.of(properties.getConnectTimeout()))
+                        .setSocketTimeout(Timeout.of(properties.getReadTimeout()))
+                        .setValidateAfterInactivity(TimeValue.of(properties.getValidateAfterInactivity()))
+                        .build())
+                .build();
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "siliconflow")
+                .bindTo(meterRegistry);
+        log.info("AI接口连接池初始化: maxConnections={}, maxConnectionsPerRoute={}, keepAlive={}, idleTimeout={}, "
+                        + "connectTimeout={}, readTimeout={}, compression={}",
+                maxConnections, maxConnectionsPerRoute, properties.getKeepAlive(),
+                properties.getIdleTimeout(), properties.getConnectTimeout(), properties.getReadTimeout(),
+                properties.isCompression());
+        return connectionManager;
+    }
+
+    private static int atLeast(String name, int configured, int required) {
+        if (configured >= required) {
+            return configured;
+        }
+        log.warn("app.ai.http.{}={} 小于所需连接数 {}，按 {} 创建连接池", name, configured, required, required);
+        return required;
+    }
+
+    /**
+     * AI接口HTTP客户端
+     */
+    @Bean
+    public CloseableHttpClient aiHttpClient(PoolingHttpClientConnectionManager aiConnectionManager,
+                                            AiHttpClientProperties properties) {
+        TimeValue keepAlive = TimeValue.of(properties.getKeepAlive());
+        HttpClientBuilder builder = HttpClients.custom()
+                .setConnectionManager(aiConnectionManager)
+                .setDefaultRequestConfig(RequestConfig.custom()
+                        .setConnectionRequestTimeout(Timeout.of(properties.getPoolTimeout()))
+                        .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+                        .build())
+                // 服务端声明的Keep-Alive更短时以服务端为准，否则使用配置值
+                .setKeepAliveStrategy(new DefaultConnectionKeepAliveStrategy() {
+                    @Override
+                    public TimeValue getKeepAliveDuration(HttpResponse response, HttpContext context) {
+                        return super.getKeepAliveDuration(response, context).min(keepAlive);
+                    }
+                })
+                // 后台关闭过期和长时间空闲的连接，避免复用已被服务端关闭的连接
+                .evictExpiredConnections()
+                .evictIdleConnections(TimeValue.of(properties.getIdleTimeout()));
+        if (!properties.isCompression()) {
+            builder.disableContentCompression();
+        }
+        return builder.build();
+    }
+
+    /**
+     * 非流式聊天使用的RestTemplate，与流式聊天共享连接池；
+     * 在 {@link AiCallGuard} 保护的调用中，响应超时取读取超时与调用剩余时间中的较小值
+     */
+    @Bean
+    public RestTemplate aiRestTemplate(CloseableHttpClient aiHttpClient, AiHttpClientProperties properties) {
+        RequestConfig defaults = RequestConfig.custom()
+                .setConnectionRequestTimeout(Timeout.of(properties.getPoolTimeout()))
+                .setResponseTimeout(Timeout.of(properties.getReadTimeout()))
+                .build();
+        HttpComponentsClientHttpRequestFactory requestFactory = new HttpComponentsClientHttpRequestFactory(aiHttpClient);
+        requestFactory.setHttpContextFactory((method, uri) -> {
+            HttpClientContext context = HttpClientContext.create();
+            Duration remaining = AiCallGuard.remainingTime();
+            if (remaining != null) {
+                Duration responseTimeout = remaining.compareTo(properties.getReadTimeout()) < 0
+                        ? remaining : properties.getReadTimeout();
+                // HttpClient中超时为0表示不限时，剩余时间耗尽时取最小值
+                context.setRequestConfig(RequestConfig.copy(defaults)
+                        .setResponseTimeout(Timeout.of(responseTimeout.isZero() ? Duration.ofMillis(1) : responseTimeout))
+                        .build());
+            }
+            return context;
+        });
+        return new RestTemplate(requestFactory);
+    }
+
+}
@@ -0,0 +1,66 @@
+package com.example.springmvc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * AI接口HTTP客户端配置属性
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.ai.http")
+public class AiHttpClientProperties {
+
+    /**
+     * 连接池最大连接数，不小于最大并发流数与非流式并发上限之和
+     * （app.ai.stream.max-concurrent-streams + app.ai.resilience.bulkhead.max-concurrent-calls）
+     */
+    private int maxConnections = 250;
+
+    /**
+     * 单个路由（主机）的最大连接数，所有调用都发往同一主机，与最大连接数相同
+     */
+    private int maxConnectionsPerRoute = 250;
+
+    /**
+     * 空闲连接保活时间（服务端未声明Keep-Alive时使用）
+     */
+    private Duration keepAlive = Duration.ofSeconds(30);
+
+    /**
+     * 建立连接超时时间
+     */
+    private Duration connectTimeout = Duration.ofSeconds(5);
+
+    /**
+     * 读取超时时间（两次收到数据之间的最长间隔）
+     */
+    private Duration readTimeout = Duration.ofSeconds(60);
+
+    /**
+     * 从连接池获取连接的最长等待时间
+     */
+    private Duration poolTimeout = Duration.ofSeconds(3);
+
+    /**
+     * 空闲超过该时间的连接由后台线程关闭
+     */
+    private Duration idleTimeout = Duration.ofSeconds(30);
+
+    /**
+     * 空闲超过该时间的连接在复用前先检查是否仍然可用
+     */
+    private Duration validateAfterInactivity = Duration.ofSeconds(2);
+
+    /**
+     * 是否请求gzip/deflate压缩响应并自动解压（流式请求始终不压缩）
+     */
+    private boolean compression = true;
+
+}
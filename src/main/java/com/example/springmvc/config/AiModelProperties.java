@@ -0,0 +1,28 @@
+package com.example.springmvc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AI聊天可选模型配置属性
+ *
+ * 请求中指定的模型必须在允许列表中，配置的默认模型（spring.ai.openai.chat.options.model）始终允许
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.ai.models")
+public class AiModelProperties {
+
+    /**
+     * 允许请求指定的模型
+     */
+    private List<String> allowed = new ArrayList<>();
+
+}
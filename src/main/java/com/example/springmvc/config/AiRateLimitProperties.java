@@ -0,0 +1,82 @@
+package com.example.springmvc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * AI聊天按客户端限流配置属性
+ *
+ * 每个客户端两个令牌桶：每秒请求数和每分钟token数，在调用上游之前检查，
+ * 缓存命中的请求不受限制
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.ai.rate-limit")
+public class AiRateLimitProperties {
+
+    /**
+     * 是否启用限流
+     */
+    private boolean enabled = true;
+
+    /**
+     * 由可信网关/反向代理设置的客户端标识请求头，仅在 trustClientHeader 开启时使用
+     */
+    private String clientHeader = "X-Client-Id";
+
+    /**
+     * 是否信任 clientHeader：只有网关会覆盖（而不是透传）客户端传入的该请求头时才能开启，
+     * 否则客户端每次换一个值就能拿到新的令牌桶
+     */
+    private boolean trustClientHeader = false;
+
+    /**
+     * 默认每秒请求数，0表示不限制
+     */
+    private double requestsPerSecond = 5;
+
+    /**
+     * 默认每分钟token数，0表示不限制
+     */
+    private long tokensPerMinute = 20_000;
+
+    /**
+     * 同时跟踪限流状态的最大客户端数
+     */
+    private long maxClients = 10_000;
+
+    /**
+     * 按客户端覆盖，key为客户端标识
+     */
+    private Map<String, Limit> clients = new HashMap<>();
+
+    /**
+     * 单个客户端的限额，未设置的项使用默认值
+     */
+    @Data
+    public static class Limit {
+
+        private Double requestsPerSecond;
+
+        private Long tokensPerMinute;
+
+    }
+
+    public double requestsPerSecondOf(String client) {
+        Limit limit = clients.get(client);
+        return limit != null && limit.getRequestsPerSecond() != null ? limit.getRequestsPerSecond() : requestsPerSecond;
+    }
+
+    public long tokensPerMinuteOf(String client) {
+        Limit limit = clients.get(client);
+        return limit != null && limit.getTokensPerMinute() != null ? limit.getTokensPerMinute() : tokensPerMinute;
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.example.springmvc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * AI聊天调用容错配置属性
+ *
+ * 并发隔离（bulkhead）、带预算的重试和熔断，作用于非流式聊天调用
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.ai.resilience")
+public class AiResilienceProperties {
+
+    /**
+     * 并发隔离配置
+     */
+    private Bulkhead bulkhead = new Bulkhead();
+
+    /**
+     * 重试配置
+     */
+    private Retry retry = new Retry();
+
+    /**
+     * 熔断配置
+     */
+    private CircuitBreaker circuitBreaker = new CircuitBreaker();
+
+    /**
+     * 并发隔离配置
+     */
+    @Data
+    public static class Bulkhead {
+
+        /**
+         * 同时进行的上游调用上限
+         */
+        private int maxConcurrentCalls = 20;
+
+        /**
+         * 达到上限时等待的最长时间，0表示立即拒绝
+         */
+        private Duration maxWait = Duration.ofMillis(500);
+
+    }
+
+    /**
+     * 重试配置（指数退避 + 全抖动，只重试连接失败、5xx、429）
+     */
+    @Data
+    public static class Retry {
+
+        /**
+         * 最大尝试次数（含首次），1表示不重试
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * 首次重试的退避上限
+         */
+        private Duration initialBackoff = Duration.ofMillis(200);
+
+        /**
+         * 退避上限
+         */
+        private Duration maxBackoff = Duration.ofSeconds(2);
+
+        /**
+         * 重试预算：每个请求为预算贡献的重试次数，0.2表示重试最多占请求数的20%
+         */
+        private double budgetRatio = 0.2;
+
+        /**
+         * 低流量时每秒保底的重试次数
+         */
+        private double minRetriesPerSecond = 1;
+
+        /**
+         * 单次调用（含所有重试和退避）的总时限，每次尝试的响应超时不超过剩余时间
+         */
+        private Duration deadline = Duration.ofSeconds(60);
+
+    }
+
+    /**
+     * 熔断配置（基于最近N次调用的失败率）
+     */
+    @Data
+    public static class CircuitBreaker {
+
+        /**
+         * 统计窗口的调用次数
+         */
+        private int windowSize = 20;
+
+        /**
+         * 窗口内调用数不少于该值时才计算失败率
+         */
+        private int minimumCalls = 10;
+
+        /**
+         * 失败率阈值（百分比），达到后熔断
+         */
+        private int failureRateThreshold = 50;
+
+        /**
+         * 熔断持续时间，之后进入半开状态放行试探请求
+         */
+        private Duration openDuration = Duration.ofSeconds(30);
+
+        /**
+         * 半开状态放行的试探请求数，全部成功后恢复
+         */
+        private int halfOpenCalls = 2;
+
+    }
+
+}
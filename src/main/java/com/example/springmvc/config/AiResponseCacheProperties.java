@@ -0,0 +1,59 @@
+package com.example.springmvc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * AI聊天响应缓存配置属性
+ *
+ * 本地缓存（Caffeine）为一级缓存，Redis为可选的二级缓存；
+ * 只有确定性的请求（temperature为0）才会被缓存
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.ai.cache")
+public class AiResponseCacheProperties {
+
+    /**
+     * 是否启用响应缓存
+     */
+    private boolean enabled = true;
+
+    /**
+     * 本地缓存最大条目数
+     */
+    private long maximumSize = 1000;
+
+    /**
+     * 本地缓存写入后的过期时间
+     */
+    private Duration localTtl = Duration.ofMinutes(10);
+
+    /**
+     * 是否启用Redis二级缓存
+     */
+    private boolean redisEnabled = false;
+
+    /**
+     * Redis缓存过期时间
+     */
+    private Duration redisTtl = Duration.ofHours(1);
+
+    /**
+     * Redis缓存键前缀
+     */
+    private String redisKeyPrefix = "springmvc:ai:chat:";
+
+    /**
+     * 等待其他请求进行中的相同调用的最长时间，超时后自行调用；
+     * 应略大于上游调用的总时限（app.ai.resilience.retry.deadline）
+     */
+    private Duration loadWaitTimeout = Duration.ofSeconds(65);
+
+}
@@ -0,0 +1,45 @@
+package com.example.springmvc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * AI流式聊天配置属性
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.ai.stream")
+public class AiStreamProperties {
+
+    /**
+     * 最大并发流数，超出后返回429
+     */
+    private int maxConcurrentStreams = 200;
+
+    /**
+     * 达到上限时排队等待的最长时间，0表示立即拒绝
+     */
+    private Duration acquireTimeout = Duration.ZERO;
+
+    /**
+     * 运行时支持（JDK 21+）时使用虚拟线程
+     */
+    private boolean virtualThreads = true;
+
+    /**
+     * token合并窗口，第一个token之后的token最多等待这么久再下发，0表示逐token下发
+     */
+    private Duration flushInterval = Duration.ofMillis(50);
+
+    /**
+     * 合并缓冲达到该字节数（UTF-8）时立即下发
+     */
+    private int flushBytes = 1024;
+
+}
@@ -0,0 +1,74 @@
+package com.example.springmvc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * MCP工具执行配置属性
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.mcp.tools")
+public class McpToolProperties {
+
+    /**
+     * 运行时支持（JDK 21+）时使用虚拟线程执行工具
+     */
+    private boolean virtualThreads = true;
+
+    /**
+     * 不支持虚拟线程时平台线程池的最大线程数
+     */
+    private int maxThreads = 32;
+
+    /**
+     * 默认单次调用超时时间
+     */
+    private Duration timeout = Duration.ofSeconds(10);
+
+    /**
+     * 默认单个工具的最大并发调用数
+     */
+    private int maxConcurrency = 8;
+
+    /**
+     * 只读工具结果缓存的最大条目数
+     */
+    private int resultCacheSize = 1000;
+
+    /**
+     * 按工具名覆盖的限制
+     */
+    private Map<String, Limit> overrides = new HashMap<>();
+
+    /**
+     * 单个工具的限制，未设置的项使用默认值
+     */
+    @Data
+    public static class Limit {
+
+        private Duration timeout;
+
+        private Integer maxConcurrency;
+
+    }
+
+    public Duration timeoutOf(String tool) {
+        Limit limit = overrides.get(tool);
+        return limit != null && limit.getTimeout() != null ? limit.getTimeout() : timeout;
+    }
+
+    public int maxConcurrencyOf(String tool) {
+        Limit limit = overrides.get(tool);
+        return limit != null && limit.getMaxConcurrency() != null ? limit.getMaxConcurrency() : maxConcurrency;
+    }
+
+}
@@ -0,0 +1,75 @@
+package com.example.springmvc.config;
+
+import com.example.springmvc.cache.UserCache;
+import com.example.springmvc.cache.UserCacheInvalidationBus;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Base64UrlNamingStrategy;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 用户缓存跨节点失效广播配置
+ *
+ * 独立于 {@link RabbitMQConfig}，由 app.cache.user.invalidation.enabled 显式开启，
+ * 开启前需配置RabbitMQ连接（spring.rabbitmq.*）；
+ * 消息由总线自行以JSON编解码，不依赖全局的消息转换器
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "app.cache.user.invalidation", name = "enabled", havingValue = "true")
+public class UserCacheInvalidationConfig {
+
+    // 用户缓存失效广播交换机
+    public static final String USER_CACHE_INVALIDATION_EXCHANGE = "user.cache.invalidation.exchange";
+    public static final String USER_CACHE_INVALIDATION_QUEUE_PREFIX = "user.cache.invalidation.";
+
+    /**
+     * 声明用户缓存失效广播交换机
+     */
+    @Bean
+    public FanoutExchange userCacheInvalidationExchange() {
+        return new FanoutExchange(USER_CACHE_INVALIDATION_EXCHANGE);
+    }
+
+    /**
+     * 声明用户缓存失效队列
+     * 每个节点一个匿名队列（非持久、排他、自动删除），节点下线后自动清理
+     */
+    @Bean
+    public Queue userCacheInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(USER_CACHE_INVALIDATION_QUEUE_PREFIX));
+    }
+
+    /**
+     * 绑定用户缓存失效队列和交换机
+     */
+    @Bean
+    public Binding userCacheInvalidationBinding(Queue userCacheInvalidationQueue,
+                                                FanoutExchange userCacheInvalidationExchange) {
+        return BindingBuilder.bind(userCacheInvalidationQueue).to(userCacheInvalidationExchange);
+    }
+
+    /**
+     * 用户缓存跨节点失效总线
+     */
+    @Bean
+    public UserCacheInvalidationBus userCacheInvalidationBus(RabbitTemplate rabbitTemplate,
+                                                             UserCache userCache,
+                                                             UserCacheProperties userCacheProperties,
+                                                             ObjectMapper objectMapper,
+                                                             ApplicationEventPublisher eventPublisher) {
+        return new UserCacheInvalidationBus(rabbitTemplate, userCache, userCacheProperties, objectMapper,
+                eventPublisher);
+    }
+
+}
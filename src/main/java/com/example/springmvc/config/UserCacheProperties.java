@@ -0,0 +1,80 @@
+package com.example.springmvc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 用户缓存配置属性
+ * 
+ * 本地缓存（Caffeine）为一级缓存，Redis为可选的二级缓存
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.cache.user")
+public class UserCacheProperties {
+
+    /**
+     * 本地缓存最大条目数
+     */
+    private long maximumSize = 10_000;
+
+    /**
+     * 本地缓存写入后的过期时间
+     */
+    private Duration localTtl = Duration.ofMinutes(5);
+
+    /**
+     * 是否启用Redis二级缓存
+     */
+    private boolean redisEnabled = false;
+
+    /**
+     * Redis缓存过期时间
+     */
+    private Duration redisTtl = Duration.ofMinutes(30);
+
+    /**
+     * Redis缓存键前缀
+     */
+    private String redisKeyPrefix = "springmvc:user:";
+
+    /**
+     * 等待其他请求进行中的同一加载的最长时间，超时后自行加载
+     */
+    private Duration loadWaitTimeout = Duration.ofSeconds(3);
+
+    /**
+     * 跨节点失效广播配置
+     */
+    private Invalidation invalidation = new Invalidation();
+
+    /**
+     * 跨节点失效广播配置（基于RabbitMQ fanout交换机）
+     */
+    @Data
+    public static class Invalidation {
+
+        /**
+         * 是否启用失效广播，开启前需配置RabbitMQ连接（spring.rabbitmq.*）
+         */
+        private boolean enabled = false;
+
+        /**
+         * 批量发送间隔，窗口内的变更会被合并
+         */
+        private Duration flushInterval = Duration.ofMillis(50);
+
+        /**
+         * 单条消息最多携带的用户数，达到后立即发送
+         */
+        private int maxBatchSize = 500;
+
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.example.springmvc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户搜索索引配置属性
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.search.user")
+public class UserSearchProperties {
+
+    /**
+     * 是否启用内存n-gram索引，关闭时回退为数据库LIKE查询
+     */
+    private boolean enabled = true;
+
+    /**
+     * 启动时全量构建索引的批大小
+     */
+    private int rebuildBatchSize = 1000;
+
+}
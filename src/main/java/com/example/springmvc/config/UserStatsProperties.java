@@ -0,0 +1,25 @@
+package com.example.springmvc.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 用户统计快照配置属性
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@Component
+@ConfigurationProperties(prefix = "app.stats.user")
+public class UserStatsProperties {
+
+    /**
+     * 全量重新聚合的间隔，校正其他节点的变更及增量更新的累计误差
+     */
+    private Duration reconcileInterval = Duration.ofMinutes(1);
+
+}
@@ -5,8 +5,11 @@ import com.example.springmvc.dto.ChatRequest;
 import com.example.springmvc.dto.ChatResponse;
 import com.example.springmvc.service.AiChatService;
 import jakarta.validation.Valid;
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
 
 /**
  * AI聊天控制器
@@ -54,6 +57,14 @@ public class AiChatController {
         return aiChatService.streamChat(message);
     }
 
+    /**
+     * 响应式流式输出聊天接口（SSE，支持背压，客户端断开时中止上游请求）
+     */
+    @GetMapping(value = "/stream/reactive", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<ServerSentEvent<String>> streamReactive(@RequestParam String message) {
+        return aiChatService.streamChatReactive(message);
+    }
+
     /**
      * 健康检查
      */
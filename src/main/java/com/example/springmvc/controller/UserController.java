@@ -1,8 +1,14 @@
 package com.example.springmvc.controller;
 
 import com.example.springmvc.common.response.ApiResponse;
+import com.example.springmvc.common.response.CursorPageResponse;
 import com.example.springmvc.common.response.PageResponse;
+import com.example.springmvc.dto.UserBatchRequest;
+import com.example.springmvc.dto.UserBatchResponse;
+import com.example.springmvc.dto.UserBatchStatusRequest;
+import com.example.springmvc.dto.UserBatchStatusResult;
 import com.example.springmvc.dto.UserCreateRequest;
+import com.example.springmvc.dto.UserImportResult;
 import com.example.springmvc.dto.UserResponse;
 import com.example.springmvc.dto.UserUpdateRequest;
 import com.example.springmvc.service.UserService;
@@ -13,11 +19,14 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Min;
 import java.util.List;
 
@@ -55,6 +64,21 @@ public class UserController {
                 .body(ApiResponse.success("用户创建成功", userResponse));
     }
 
+    /**
+     * 批量导入用户
+     * 
+     * @param requests 用户创建请求列表
+     * @return 逐行导入结果
+     */
+    @PostMapping("/import")
+    public ResponseEntity<ApiResponse<UserImportResult>> importUsers(@RequestBody List<UserCreateRequest> requests) {
+        log.info("接收批量导入用户请求: {} 行", requests.size());
+        
+        UserImportResult result = userService.importUsers(requests);
+        
+        return ResponseEntity.ok(ApiResponse.success("批量导入完成", result));
+    }
+
     /**
      * 根据ID获取用户信息
      * 
@@ -70,6 +94,21 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(userResponse));
     }
 
+    /**
+     * 根据ID列表批量获取用户信息
+     * 
+     * @param request 批量查询请求（最多200个ID）
+     * @return 与请求顺序一致的用户列表，不存在的ID单独列出
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<ApiResponse<UserBatchResponse>> getUsersByIds(@Valid @RequestBody UserBatchRequest request) {
+        log.info("接收批量获取用户请求: {} 个", request.getIds().size());
+        
+        UserBatchResponse response = userService.getUsersByIds(request.getIds());
+        
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+
     /**
      * 根据用户名获取用户信息
      * 
@@ -132,6 +171,24 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(users));
     }
 
+    /**
+     * 流式导出所有用户（NDJSON，每行一个用户）
+     * 
+     * 请求示例: GET /users/all?format=ndjson
+     * 
+     * @return 流式响应体
+     */
+    @GetMapping(value = "/all", params = "format=ndjson")
+    public ResponseEntity<StreamingResponseBody> exportUsers() {
+        log.info("接收流式导出所有用户请求");
+        
+        StreamingResponseBody body = userService::exportUsers;
+        
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/x-ndjson"))
+                .body(body);
+    }
+
     /**
      * 分页获取用户列表
      * 
@@ -159,6 +216,32 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(pageResponse));
     }
 
+    /**
+     * 游标分页获取用户列表
+     * 按 (排序字段, id) 键集定位，不返回总数，适合深分页和全表遍历
+     * 
+     * @param cursor 上一页返回的游标，首页不传
+     * @param size 每页大小
+     * @param sort 排序字段（id、createdAt、username）
+     * @param direction 排序方向
+     * @return 游标分页用户列表
+     */
+    @GetMapping("/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<UserResponse>>> scrollUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer size,
+            @RequestParam(defaultValue = "id") String sort,
+            @RequestParam(defaultValue = "asc") String direction) {
+        log.info("接收游标分页获取用户请求: size={}, sort={}, direction={}", size, sort, direction);
+        
+        Sort.Direction sortDirection = "desc".equalsIgnoreCase(direction) ? 
+                Sort.Direction.DESC : Sort.Direction.ASC;
+        CursorPageResponse<UserResponse> pageResponse = 
+                userService.scrollUsers(null, new Sort.Order(sortDirection, sort), cursor, size);
+        
+        return ResponseEntity.ok(ApiResponse.success(pageResponse));
+    }
+
     /**
      * 根据状态分页获取用户列表
      * 
@@ -181,6 +264,27 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(pageResponse));
     }
 
+    /**
+     * 根据状态游标分页获取用户列表，按创建时间倒序
+     * 
+     * @param status 用户状态
+     * @param cursor 上一页返回的游标，首页不传
+     * @param size 每页大小
+     * @return 游标分页用户列表
+     */
+    @GetMapping("/status/{status}/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<UserResponse>>> scrollUsersByStatus(
+            @PathVariable Integer status,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer size) {
+        log.info("接收根据状态游标分页获取用户请求: status={}, size={}", status, size);
+        
+        CursorPageResponse<UserResponse> pageResponse = 
+                userService.scrollUsers(status, Sort.Order.desc("createdAt"), cursor, size);
+        
+        return ResponseEntity.ok(ApiResponse.success(pageResponse));
+    }
+
     /**
      * 搜索用户
      * 
@@ -203,6 +307,26 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success(pageResponse));
     }
 
+    /**
+     * 游标分页搜索用户，按创建时间倒序
+     * 
+     * @param keyword 搜索关键字
+     * @param cursor 上一页返回的游标，首页不传
+     * @param size 每页大小
+     * @return 搜索结果
+     */
+    @GetMapping("/search/cursor")
+    public ResponseEntity<ApiResponse<CursorPageResponse<UserResponse>>> scrollSearchUsers(
+            @RequestParam String keyword,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") @Min(1) @Max(100) Integer size) {
+        log.info("接收游标分页搜索用户请求: keyword={}, size={}", keyword, size);
+        
+        CursorPageResponse<UserResponse> pageResponse = userService.scrollSearchUsers(keyword, cursor, size);
+        
+        return ResponseEntity.ok(ApiResponse.success(pageResponse));
+    }
+
     /**
      * 检查用户名是否存在
      * 
@@ -263,4 +387,20 @@ public class UserController {
         return ResponseEntity.ok(ApiResponse.success("用户禁用成功", userResponse));
     }
 
+    /**
+     * 批量修改用户状态
+     * 
+     * @param request 批量修改请求（ID列表或过滤条件）
+     * @return 匹配数和实际更新数
+     */
+    @PostMapping("/batch/status")
+    public ResponseEntity<ApiResponse<UserBatchStatusResult>> batchUpdateStatus(
+            @Valid @RequestBody UserBatchStatusRequest request) {
+        log.info("接收批量修改用户状态请求: status={}", request.getStatus());
+        
+        UserBatchStatusResult result = userService.batchUpdateStatus(request);
+        
+        return ResponseEntity.ok(ApiResponse.success("批量修改状态成功", result));
+    }
+
 }
\ No newline at end of file
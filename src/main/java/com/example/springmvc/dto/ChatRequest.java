@@ -1,6 +1,11 @@
 package com.example.springmvc.dto;
 
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.Data;
 
 /**
@@ -13,17 +18,22 @@ public class ChatRequest {
     private String message;
     
     /**
-     * 可选的模型名称，如果不指定则使用配置的默认模型
+     * 可选的模型名称，如果不指定则使用配置的默认模型；须在 app.ai.models.allowed 中
      */
+    @Size(max = 128, message = "模型名称不能超过128个字符")
     private String model;
     
     /**
      * 温度参数，控制回复的随机性，范围0-1
      */
+    @DecimalMin(value = "0.0", message = "温度参数不能小于0")
+    @DecimalMax(value = "1.0", message = "温度参数不能大于1")
     private Double temperature;
     
     /**
-     * 最大token数
+     * 最大token数，范围1-8192
      */
+    @Min(value = 1, message = "最大token数不能小于1")
+    @Max(value = 8192, message = "最大token数不能大于8192")
     private Integer maxTokens;
 }
\ No newline at end of file
@@ -23,7 +23,17 @@ public class ChatResponse {
     private String model;
     
     /**
-     * 消耗的token数量
+     * 输入token数量（命中缓存时为0）
+     */
+    private Integer promptTokens;
+    
+    /**
+     * 输出token数量（命中缓存时为0）
+     */
+    private Integer completionTokens;
+    
+    /**
+     * 消耗的token数量（命中缓存时为0）
      */
     private Integer totalTokens;
     
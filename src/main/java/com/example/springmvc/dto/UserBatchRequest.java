@@ -0,0 +1,29 @@
+package com.example.springmvc.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * 批量查询用户请求DTO
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchRequest {
+
+    /**
+     * 用户ID列表
+     */
+    @NotEmpty(message = "用户ID列表不能为空")
+    @Size(max = 200, message = "单次最多查询200个用户")
+    private List<Long> ids;
+
+}
@@ -0,0 +1,30 @@
+package com.example.springmvc.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 批量查询用户响应DTO
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchResponse {
+
+    /**
+     * 用户列表，顺序与请求ID一致，不存在的用户对应位置为null
+     */
+    private List<UserResponse> users;
+
+    /**
+     * 不存在的用户ID
+     */
+    private List<Long> missingIds;
+
+}
@@ -0,0 +1,49 @@
+package com.example.springmvc.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 批量修改用户状态请求DTO
+ * 
+ * 指定ID列表，或通过过滤条件（当前状态、创建时间）选择用户，二者择一
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchStatusRequest {
+
+    /**
+     * 目标状态：0-禁用，1-启用
+     */
+    @NotNull(message = "目标状态不能为空")
+    @Min(value = 0, message = "状态只能为0或1")
+    @Max(value = 1, message = "状态只能为0或1")
+    private Integer status;
+
+    /**
+     * 用户ID列表
+     */
+    private List<Long> ids;
+
+    /**
+     * 过滤条件：当前状态（未指定ID列表时必填）
+     */
+    private Integer currentStatus;
+
+    /**
+     * 过滤条件：创建时间早于该时间
+     */
+    private LocalDateTime createdBefore;
+
+}
@@ -0,0 +1,28 @@
+package com.example.springmvc.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * 批量修改用户状态结果DTO
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserBatchStatusResult {
+
+    /**
+     * 匹配到的用户数
+     */
+    private Integer matched;
+
+    /**
+     * 实际更新的用户数（状态已是目标状态的不计入）
+     */
+    private Integer affected;
+
+}
@@ -0,0 +1,95 @@
+package com.example.springmvc.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+/**
+ * 用户批量导入结果DTO
+ * 
+ * 包含汇总统计和逐行的导入结果
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class UserImportResult {
+
+    /**
+     * 提交的总行数
+     */
+    private Integer total;
+
+    /**
+     * 成功创建的行数
+     */
+    private Integer created;
+
+    /**
+     * 未导入的行数
+     */
+    private Integer skipped;
+
+    /**
+     * 逐行结果，顺序与请求一致
+     */
+    private List<Row> rows;
+
+    /**
+     * 单行导入状态
+     */
+    public enum RowStatus {
+        /** 创建成功 */
+        CREATED,
+        /** 参数校验失败 */
+        INVALID,
+        /** 与同批次前面的行用户名或邮箱重复 */
+        DUPLICATE_IN_REQUEST,
+        /** 用户名已存在 */
+        USERNAME_EXISTS,
+        /** 邮箱已存在 */
+        EMAIL_EXISTS,
+        /** 写入失败（如与并发写入的用户名或邮箱冲突） */
+        FAILED
+    }
+
+    /**
+     * 单行导入结果
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Row {
+
+        /**
+         * 行号（从0开始）
+         */
+        private Integer index;
+
+        /**
+         * 用户名
+         */
+        private String username;
+
+        /**
+         * 导入状态
+         */
+        private RowStatus status;
+
+        /**
+         * 创建成功后的用户ID
+         */
+        private Long id;
+
+        /**
+         * 失败原因
+         */
+        private String message;
+
+    }
+
+}
@@ -20,7 +20,11 @@ import java.time.LocalDateTime;
  * @version 1.0.0
  */
 @Entity
-@Table(name = "users")
+@Table(name = "users", indexes = {
+        // 支持按创建时间排序及键集分页
+        @Index(name = "idx_users_created_at", columnList = "created_at, id"),
+        @Index(name = "idx_users_status_created_at", columnList = "status, created_at, id")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -0,0 +1,31 @@
+package com.example.springmvc.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 其他节点的用户变更事件
+ * 
+ * 由用户缓存失效总线收到其他节点的广播后在本节点发布，
+ * 只携带用户ID（不含变更类型），维护本地派生数据的组件需按ID重新读取数据库
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Getter
+@ToString
+public class RemoteUserChangedEvent {
+
+    /**
+     * 受影响的用户ID列表
+     */
+    private final List<Long> userIds;
+
+    public RemoteUserChangedEvent(Collection<Long> userIds) {
+        this.userIds = List.copyOf(userIds);
+    }
+
+}
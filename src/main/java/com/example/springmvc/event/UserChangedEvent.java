@@ -0,0 +1,77 @@
+package com.example.springmvc.event;
+
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 用户变更事件
+ * 
+ * 用户写操作成功后由业务层发布，
+ * 缓存等组件在事务提交后监听该事件完成失效处理
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Getter
+@ToString
+public class UserChangedEvent {
+
+    /**
+     * 变更类型
+     */
+    public enum Type {
+        CREATED, UPDATED, DELETED
+    }
+
+    /**
+     * 变更类型
+     */
+    private final Type type;
+
+    /**
+     * 受影响的用户ID列表
+     */
+    private final List<Long> userIds;
+
+    /**
+     * 对用户统计值的影响，为null表示未知（需重新聚合）
+     */
+    private final UserStatsDelta statsDelta;
+
+    public UserChangedEvent(Type type, Collection<Long> userIds) {
+        this(type, userIds, null);
+    }
+
+    public UserChangedEvent(Type type, Collection<Long> userIds, UserStatsDelta statsDelta) {
+        this.type = type;
+        this.userIds = List.copyOf(userIds);
+        this.statsDelta = statsDelta;
+    }
+
+    /**
+     * 构造单个用户的变更事件
+     * 
+     * @param type 变更类型
+     * @param userId 用户ID
+     * @return 变更事件
+     */
+    public static UserChangedEvent of(Type type, Long userId) {
+        return new UserChangedEvent(type, List.of(userId));
+    }
+
+    /**
+     * 构造单个用户的变更事件
+     * 
+     * @param type 变更类型
+     * @param userId 用户ID
+     * @param statsDelta 对用户统计值的影响
+     * @return 变更事件
+     */
+    public static UserChangedEvent of(Type type, Long userId, UserStatsDelta statsDelta) {
+        return new UserChangedEvent(type, List.of(userId), statsDelta);
+    }
+
+}
@@ -0,0 +1,62 @@
+package com.example.springmvc.event;
+
+import com.example.springmvc.entity.User;
+
+/**
+ * 一次用户变更对用户统计值的影响
+ *
+ * 随 {@link UserChangedEvent} 发布，统计快照据此增量更新，无需重新聚合全表
+ *
+ * @param totalUsers 用户总数变化
+ * @param activeUsers 启用用户数变化
+ * @param usersWithRealName 填写真实姓名的用户数变化
+ * @param usersWithPhone 填写手机号的用户数变化
+ * @author example
+ * @version 1.0.0
+ */
+public record UserStatsDelta(long totalUsers, long activeUsers, long usersWithRealName, long usersWithPhone) {
+
+    public static final UserStatsDelta NONE = new UserStatsDelta(0, 0, 0, 0);
+
+    /**
+     * 单个用户对统计值的贡献，统计口径与 UserRepository#aggregateStats 一致
+     *
+     * @param status 用户状态
+     * @param realName 真实姓名
+     * @param phone 手机号
+     * @return 该用户计入的统计值
+     */
+    public static UserStatsDelta of(Integer status, String realName, String phone) {
+        return new UserStatsDelta(1,
+                Integer.valueOf(1).equals(status) ? 1 : 0,
+                realName != null && !realName.isEmpty() ? 1 : 0,
+                phone != null && !phone.isEmpty() ? 1 : 0);
+    }
+
+    /**
+     * @param user 用户
+     * @return 该用户计入的统计值
+     */
+    public static UserStatsDelta of(User user) {
+        return of(user.getStatus(), user.getRealName(), user.getPhone());
+    }
+
+    public UserStatsDelta plus(UserStatsDelta other) {
+        return new UserStatsDelta(totalUsers + other.totalUsers, activeUsers + other.activeUsers,
+                usersWithRealName + other.usersWithRealName, usersWithPhone + other.usersWithPhone);
+    }
+
+    public UserStatsDelta minus(UserStatsDelta other) {
+        return new UserStatsDelta(totalUsers - other.totalUsers, activeUsers - other.activeUsers,
+                usersWithRealName - other.usersWithRealName, usersWithPhone - other.usersWithPhone);
+    }
+
+    public UserStatsDelta negate() {
+        return NONE.minus(this);
+    }
+
+    public boolean isEmpty() {
+        return equals(NONE);
+    }
+
+}
@@ -0,0 +1,230 @@
+package com.example.springmvc.mcp;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+
+/**
+ * 四则运算表达式
+ *
+ * 支持 +、-、*、/、括号和一元正负号，乘除优先于加减，同级左结合；
+ * 表达式先编译为语法树，可重复求值，运算使用 {@link BigDecimal}，
+ * 除法按 {@link MathContext#DECIMAL128} 精度舍入
+ *
+ * 文法：
+ * <pre>
+ * expression := term (('+' | '-') term)*
+ * term       := factor (('*' | '/') factor)*
+ * factor     := ('+' | '-') factor | number | '(' expression ')'
+ * </pre>
+ *
+ * @author example
+ * @version 1.0.0
+ */
+public final class ArithmeticExpression {
+
+    /**
+     * 表达式最大长度
+     */
+    public static final int MAX_LENGTH = 1000;
+
+    /**
+     * 最大嵌套深度（括号及一元符号），防止递归过深
+     */
+    private static final int MAX_DEPTH = 100;
+
+    private static final MathContext MATH_CONTEXT = MathContext.DECIMAL128;
+
+    private final String source;
+    private final Node root;
+
+    private ArithmeticExpression(String source, Node root) {
+        this.source = source;
+        this.root = root;
+    }
+
+    /**
+     * 编译表达式
+     *
+     * @param expression 表达式文本
+     * @return 编译后的表达式
+     * @throws IllegalArgumentException 表达式为空、过长或语法错误
+     */
+    public static ArithmeticExpression compile(String expression) {
+        if (expression == null || expression.isBlank()) {
+            throw new IllegalArgumentException("表达式不能为空");
+        }
+        if (expression.length() > MAX_LENGTH) {
+            throw new IllegalArgumentException("表达式长度不能超过" + MAX_LENGTH);
+        }
+        Parser parser = new Parser(expression);
+        Node root = parser.parseExpression(0);
+        parser.skipWhitespace();
+        if (parser.pos < expression.length()) {
+            throw parser.error("多余的字符 '" + expression.charAt(parser.pos) + "'");
+        }
+        return new ArithmeticExpression(expression, root);
+    }
+
+    /**
+     * 求值
+     *
+     * @return 计算结果，去除末尾的0
+     * @throws ArithmeticException 除数为0
+     */
+    public BigDecimal evaluate() {
+        BigDecimal value = root.evaluate().stripTrailingZeros();
+        return value.scale() < 0 ? value.setScale(0) : value;
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+
+    /**
+     * 语法树节点
+     */
+    private interface Node {
+
+        BigDecimal evaluate();
+    }
+
+    private record Literal(BigDecimal value) implements Node {
+
+        @Override
+        public BigDecimal evaluate() {
+            return value;
+        }
+    }
+
+    private record Negate(Node operand) implements Node {
+
+        @Override
+        public BigDecimal evaluate() {
+            return operand.evaluate().negate();
+        }
+    }
+
+    private record Binary(char operator, Node left, Node right) implements Node {
+
+        @Override
+        public BigDecimal evaluate() {
+            BigDecimal l = left.evaluate();
+            BigDecimal r = right.evaluate();
+            return switch (operator) {
+                case '+' -> l.add(r);
+                case '-' -> l.subtract(r);
+                case '*' -> l.multiply(r);
+                default -> {
+                    if (r.signum() == 0) {
+                        throw new ArithmeticException("除数不能为0");
+                    }
+                    yield l.divide(r, MATH_CONTEXT);
+                }
+            };
+        }
+    }
+
+    /**
+     * 递归下降解析器
+     */
+    private static final class Parser {
+
+        private final String text;
+        private int pos;
+
+        private Parser(String text) {
+            this.text = text;
+        }
+
+        private Node parseExpression(int depth) {
+            Node node = parseTerm(depth);
+            while (true) {
+                char c = peek();
+                if (c != '+' && c != '-') {
+                    return node;
+                }
+                pos++;
+                node = new Binary(c, node, parseTerm(depth));
+            }
+        }
+
+        private Node parseTerm(int depth) {
+            Node node = parseFactor(depth);
+            while (true) {
+                char c = peek();
+                if (c != '*' && c != '/') {
+                    return node;
+                }
+                pos++;
+                node = new Binary(c, node, parseFactor(depth));
+            }
+        }
+
+        private Node parseFactor(int depth) {
+            if (depth > MAX_DEPTH) {
+                throw error("嵌套层数不能超过" + MAX_DEPTH);
+            }
+            char c = peek();
+            if (c == '+' || c == '-') {
+                pos++;
+                Node operand = parseFactor(depth + 1);
+                return c == '-' ? new Negate(operand) : operand;
+            }
+            if (c == '(') {
+                pos++;
+                Node inner = parseExpression(depth + 1);
+                if (peek() != ')') {
+                    throw error("缺少 ')'");
+                }
+                pos++;
+                return inner;
+            }
+            if (isNumberStart(c)) {
+                return parseNumber();
+            }
+            throw error(c == 0 ? "表达式不完整" : "非法字符 '" + c + "'");
+        }
+
+        private Node parseNumber() {
+            int start = pos;
+            boolean dot = false;
+            while (pos < text.length()) {
+                char c = text.charAt(pos);
+                if (c == '.' && !dot) {
+                    dot = true;
+                } else if (c < '0' || c > '9') {
+                    break;
+                }
+                pos++;
+            }
+            if (pos - start == 1 && dot) {
+                throw error("无效的数字 '.'");
+            }
+            return new Literal(new BigDecimal(text.substring(start, pos)));
+        }
+
+        /**
+         * 跳过空白并返回当前字符，已到末尾时返回0
+         */
+        private char peek() {
+            skipWhitespace();
+            return pos < text.length() ? text.charAt(pos) : 0;
+        }
+
+        private void skipWhitespace() {
+            while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) {
+                pos++;
+            }
+        }
+
+        private static boolean isNumberStart(char c) {
+            return (c >= '0' && c <= '9') || c == '.';
+        }
+
+        private IllegalArgumentException error(String message) {
+            return new IllegalArgumentException("表达式语法错误（位置 " + (pos + 1) + "）: " + message);
+        }
+    }
+
+}
@@ -1,7 +1,13 @@
 package com.example.springmvc.mcp;
 
+import com.example.springmvc.dto.UserBatchResponse;
+import com.example.springmvc.dto.UserSummary;
 import com.example.springmvc.repository.UserRepository;
+import com.example.springmvc.service.UserService;
+import com.example.springmvc.stats.UserStatsSnapshot;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import io.modelcontextprotocol.spec.McpSchema;
 import io.modelcontextprotocol.server.McpServerFeatures;
 import org.slf4j.Logger;
@@ -10,13 +16,15 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import javax.script.ScriptEngine;
-import javax.script.ScriptEngineManager;
+import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 
 /**
  * MCP Server 工具配置类
@@ -34,15 +42,48 @@ public class McpConfiguration {
     
     private static final Logger logger = LoggerFactory.getLogger(McpConfiguration.class);
     
+    /**
+     * listUsers 单次返回的最大用户数
+     */
+    private static final int LIST_USERS_MAX_LIMIT = 100;
+    
+    /**
+     * getUsersByIds 单次最多查询的用户数
+     */
+    private static final int GET_USERS_BY_IDS_MAX_SIZE = 100;
+    
+    /**
+     * 只读工具结果缓存时间
+     */
+    private static final Duration GET_USER_BY_ID_TTL = Duration.ofSeconds(30);
+    private static final Duration LIST_USERS_TTL = Duration.ofSeconds(10);
+    private static final Duration DATABASE_STATS_TTL = Duration.ofSeconds(5);
+    
+    /**
+     * calculator 已编译表达式缓存（按表达式文本）
+     */
+    private final Cache<String, ArithmeticExpression> compiledExpressions = Caffeine.newBuilder()
+            .maximumSize(1000)
+            .build();
+    
     @Autowired
     private UserRepository userRepository;
     
+    @Autowired
+    private UserService userService;
+    
     @Autowired
     private ObjectMapper objectMapper;
+    
+    @Autowired
+    private UserStatsSnapshot userStatsSnapshot;
+    
+    @Autowired
+    private McpToolResultCache toolResultCache;
 
     /**
      * 工具1: 数据库用户查询工具
-     * 从数据库中根据ID查询真实用户信息
+     * 从数据库中根据ID查询真实用户信息，结果按参数缓存，用户变更时失效
      */
     @Bean
     public McpServerFeatures.SyncToolSpecification getUserByIdTool() {
@@ -68,7 +109,7 @@ public class McpConfiguration {
                 inputSchema
         );
 
-        return new McpServerFeatures.SyncToolSpecification(
+        var spec = new McpServerFeatures.SyncToolSpecification(
                 tool,
                 (exchange, arguments) -> {
                     try {
@@ -125,11 +166,13 @@ public class McpConfiguration {
                     }
                 }
         );
+        
+        return toolResultCache.memoize(spec, GET_USER_BY_ID_TTL, true);
     }
 
     /**
      * 工具2: 用户列表查询工具
-     * 查询所有用户或分页查询
+     * 按ID升序分页查询用户摘要，分页和状态过滤在数据库完成，总数取自统计快照
      */
     @Bean
     public McpServerFeatures.SyncToolSpecification listUsersTool() {
@@ -140,11 +183,24 @@ public class McpConfiguration {
                 Map.of(
                         "limit", (Object) Map.of(
                                 "type", "number",
-                                "description", "返回的最大用户数量，默认10",
+                                "description", "返回的最大用户数量，默认10，最大" + LIST_USERS_MAX_LIMIT,
                                 "default", 10
+                        ),
+                        "offset", (Object) Map.of(
+                                "type", "number",
+                                "description", "跳过的用户数量，默认0；翻页较深时建议改用afterId",
+                                "default", 0
+                        ),
+                        "afterId", (Object) Map.of(
+                                "type", "number",
+                                "description", "游标：只返回ID大于该值的用户，取上次结果中的nextAfterId"
+                        ),
+                        "status", (Object) Map.of(
+                                "type", "number",
+                                "description", "按状态过滤：0-禁用，1-启用，不传则不过滤"
                         )
                 ),
-                List.of(),  // limit是可选参数
+                List.of(),  // 均为可选参数
                 false,
                 null,
                 null
@@ -152,48 +208,49 @@ public class McpConfiguration {
 
         var tool = new McpSchema.Tool(
                 "listUsers",
-                "查询数据库中的所有用户列表。可以指定返回的最大数量。",
+                "按ID升序分页查询用户列表，支持按状态过滤。返回结果中的nextAfterId可作为下一页的afterId。",
                 inputSchema
         );
 
-        return new McpServerFeatures.SyncToolSpecification(
+        var spec = new McpServerFeatures.SyncToolSpecification(
                 tool,
                 (exchange, arguments) -> {
                     try {
                         logger.debug("调用 listUsers 工具，参数: {}", arguments);
                         
-                        int limit = 10;
-                        if (arguments.containsKey("limit")) {
-                            Object limitObj = arguments.get("limit");
-                            if (limitObj instanceof Number) {
-                                limit = ((Number) limitObj).intValue();
-                            }
+                        int limit = Math.min(intArgument(arguments, "limit", 10), LIST_USERS_MAX_LIMIT);
+                        int offset = intArgument(arguments, "offset", 0);
+                        Long afterId = arguments.get("afterId") instanceof Number number ? number.longValue() : null;
+                        Integer status = arguments.get("status") instanceof Number number ? number.intValue() : null;
+                        if (limit < 1 || offset < 0) {
+                            throw new IllegalArgumentException("limit 必须大于0，offset 不能小于0");
+                        }
+                        if (status != null && status != 0 && status != 1) {
+                            throw new IllegalArgumentException("status 只能为0或1");
                         }
                         
-                        // 查询所有用户
-                        var users = userRepository.findAll();
+                        // 多取一条用于判断是否还有下一页
+                        List<UserSummary> users = userRepository.findSummaries(status, afterId, offset, limit + 1);
+                        boolean hasMore = users.size() > limit;
+                        if (hasMore) {
+                            users = users.subList(0, limit);
+                        }
                         
-                        // 限制返回数量
-                        var limitedUsers = users.stream()
-                                .limit(limit)
-                                .map(user -> {
-                                    Map<String, Object> userMap = new HashMap<>();
-                                    userMap.put("id", user.getId());
-                                    userMap.put("username", user.getUsername());
-                                    userMap.put("realName", user.getRealName());
-                                    userMap.put("email", user.getEmail());
-                                    userMap.put("status", user.getStatus());
-                                    return userMap;
-                                })
-                                .toList();
+                        var snapshot = userStatsSnapshot.current();
+                        long total = status == null ? snapshot.totalUsers()
+                                : status == 1 ? snapshot.activeUsers() : snapshot.inactiveUsers();
                         
                         Map<String, Object> response = new HashMap<>();
-                        response.put("total", users.size());
-                        response.put("returned", limitedUsers.size());
-                        response.put("users", limitedUsers);
+                        response.put("total", total);
+                        response.put("returned", users.size());
+                        response.put("hasMore", hasMore);
+                        if (hasMore) {
+                            response.put("nextAfterId", users.get(users.size() - 1).getId());
+                        }
+                        response.put("users", users);
                         
                         String result = objectMapper.writeValueAsString(response);
-                        logger.debug("查询成功，返回 {} 个用户", limitedUsers.size());
+                        logger.debug("查询成功，返回 {} 个用户", users.size());
                         
                         return new McpSchema.CallToolResult(
                                 List.of(new McpSchema.TextContent(result)),
@@ -208,11 +265,13 @@ public class McpConfiguration {
                     }
                 }
         );
+        
+        return toolResultCache.memoize(spec, LIST_USERS_TTL, true);
     }
 
     /**
      * 工具3: 数学计算器工具
-     * 支持基本的数学表达式计算
+     * 支持基本的数学表达式计算，由 {@link ArithmeticExpression} 解析求值，不依赖脚本引擎
      */
     @Bean
     public McpServerFeatures.SyncToolSpecification calculatorTool() {
@@ -245,16 +304,14 @@ public class McpConfiguration {
                         String expression = (String) arguments.get("expression");
                         logger.debug("计算表达式: {}", expression);
                         
-                        // 使用 JavaScript 引擎计算表达式
-                        ScriptEngineManager manager = new ScriptEngineManager();
-                        ScriptEngine engine = manager.getEngineByName("JavaScript");
-                        
-                        // 验证表达式安全性（只允许数字和运算符）
-                        if (!expression.matches("[0-9+\\-*/().\\s]+")) {
-                            throw new IllegalArgumentException("表达式包含非法字符");
+                        if (expression == null) {
+                            throw new IllegalArgumentException("表达式不能为空");
                         }
                         
-                        Object result = engine.eval(expression);
+                        // 编译结果按表达式缓存，重复计算时跳过解析
+                        BigDecimal result = compiledExpressions
+                                .get(expression, ArithmeticExpression::compile)
+                                .evaluate();
                         
                         Map<String, Object> response = new HashMap<>();
                         response.put("expression", expression);
@@ -351,7 +408,7 @@ public class McpConfiguration {
 
     /**
      * 工具5: 数据库统计工具
-     * 获取数据库统计信息
+     * 获取数据库统计信息，读取内存中的统计快照，不扫描用户表
      */
     @Bean
     public McpServerFeatures.SyncToolSpecification getDatabaseStatsTool() {
@@ -372,37 +429,21 @@ public class McpConfiguration {
                 inputSchema
         );
 
-        return new McpServerFeatures.SyncToolSpecification(
+        var spec = new McpServerFeatures.SyncToolSpecification(
                 tool,
                 (exchange, arguments) -> {
                     try {
                         logger.debug("调用 getDatabaseStats 工具");
                         
-                        var allUsers = userRepository.findAll();
+                        var snapshot = userStatsSnapshot.current();
                         
                         Map<String, Object> stats = new HashMap<>();
-                        stats.put("totalUsers", allUsers.size());
-                        
-                        if (!allUsers.isEmpty()) {
-                            // 统计激活用户数
-                            long activeUsers = allUsers.stream()
-                                    .filter(u -> u.getStatus() == 1)
-                                    .count();
-                            stats.put("activeUsers", activeUsers);
-                            stats.put("inactiveUsers", allUsers.size() - activeUsers);
-                            
-                            // 统计有真实姓名的用户数
-                            long usersWithRealName = allUsers.stream()
-                                    .filter(u -> u.getRealName() != null && !u.getRealName().isEmpty())
-                                    .count();
-                            stats.put("usersWithRealName", usersWithRealName);
-                            
-                            // 统计有手机号的用户数
-                            long usersWithPhone = allUsers.stream()
-                                    .filter(u -> u.getPhone() != null && !u.getPhone().isEmpty())
-                                    .count();
-                            stats.put("usersWithPhone", usersWithPhone);
-                        }
+                        stats.put("totalUsers", snapshot.totalUsers());
+                        stats.put("activeUsers", snapshot.activeUsers());
+                        stats.put("inactiveUsers", snapshot.inactiveUsers());
+                        stats.put("usersWithRealName", snapshot.usersWithRealName());
+                        stats.put("usersWithPhone", snapshot.usersWithPhone());
+                        stats.put("refreshedAt", snapshot.refreshedAt().toString());
                         
                         String result = objectMapper.writeValueAsString(stats);
                         logger.debug("统计结果: {}", result);
@@ -420,5 +461,116 @@ public class McpConfiguration {
                     }
                 }
         );
+        
+        return toolResultCache.memoize(spec, DATABASE_STATS_TTL, true);
+    }
+
+    /**
+     * 工具6: 批量用户查询工具
+     * 根据ID列表批量查询用户，命中缓存的直接返回，其余用一次IN查询加载
+     */
+    @Bean
+    public McpServerFeatures.SyncToolSpecification getUsersByIdsTool() {
+        logger.info("正在注册 MCP 工具: getUsersByIds");
+        
+        var inputSchema = new McpSchema.JsonSchema(
+                "object",
+                Map.of(
+                        "userIds", (Object) Map.of(
+                                "type", "array",
+                                "items", Map.of("type", "number"),
+                                "description", "用户ID列表，最多" + GET_USERS_BY_IDS_MAX_SIZE + "个"
+                        )
+                ),
+                List.of("userIds"),
+                false,
+                null,
+                null
+        );
+
+        var tool = new McpSchema.Tool(
+                "getUsersByIds",
+                "根据用户ID列表批量查询用户信息，一次调用返回多个用户，按请求顺序排列，并列出不存在的ID。需要查询多个用户时优先使用本工具。",
+                inputSchema
+        );
+
+        var spec = new McpServerFeatures.SyncToolSpecification(
+                tool,
+                (exchange, arguments) -> {
+                    try {
+                        logger.debug("调用 getUsersByIds 工具，参数: {}", arguments);
+                        
+                        if (!(arguments.get("userIds") instanceof List<?> rawIds) || rawIds.isEmpty()) {
+                            throw new IllegalArgumentException("userIds 必须是非空数组");
+                        }
+                        if (rawIds.size() > GET_USERS_BY_IDS_MAX_SIZE) {
+                            throw new IllegalArgumentException("userIds 最多" + GET_USERS_BY_IDS_MAX_SIZE + "个");
+                        }
+                        List<Long> userIds = rawIds.stream()
+                                .map(McpConfiguration::toUserId)
+                                .distinct()
+                                .toList();
+                        
+                        UserBatchResponse batch = userService.getUsersByIds(userIds);
+                        List<Map<String, Object>> users = batch.getUsers().stream()
+                                .filter(Objects::nonNull)
+                                .map(user -> {
+                                    Map<String, Object> userMap = new LinkedHashMap<>();
+                                    userMap.put("id", user.getId());
+                                    userMap.put("username", user.getUsername());
+                                    userMap.put("realName", user.getRealName());
+                                    userMap.put("email", user.getEmail());
+                                    userMap.put("phone", user.getPhone());
+                                    userMap.put("status", user.getStatus());
+                                    return userMap;
+                                })
+                                .toList();
+                        
+                        Map<String, Object> response = new LinkedHashMap<>();
+                        response.put("users", users);
+                        response.put("missingIds", batch.getMissingIds());
+                        
+                        String result = objectMapper.writeValueAsString(response);
+                        logger.debug("批量查询成功，返回 {} 个用户", users.size());
+                        
+                        return new McpSchema.CallToolResult(
+                                List.of(new McpSchema.TextContent(result)),
+                                false
+                        );
+                    } catch (Exception e) {
+                        logger.error("getUsersByIds 工具执行失败", e);
+                        return new McpSchema.CallToolResult(
+                                List.of(new McpSchema.TextContent("查询失败: " + e.getMessage())),
+                                true
+                        );
+                    }
+                }
+        );
+        
+        return toolResultCache.memoize(spec, GET_USER_BY_ID_TTL, true);
+    }
+    
+    /**
+     * 解析用户ID参数（数字或数字字符串）
+     */
+    private static Long toUserId(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Long.parseLong(text.trim());
+            } catch (NumberFormatException e) {
+                // 统一在下方抛出
+            }
+        }
+        throw new IllegalArgumentException("userIds 只能包含数字: " + value);
+    }
+    
+    /**
+     * 读取整数参数，缺省或类型不符时返回默认值
+     */
+    private static int intArgument(Map<String, Object> arguments, String name, int defaultValue) {
+        return arguments.get(name) instanceof Number number ? number.intValue() : defaultValue;
     }
-}
\ No newline at end of file
+}
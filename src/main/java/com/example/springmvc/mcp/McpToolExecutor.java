@@ -0,0 +1,118 @@
+package com.example.springmvc.mcp;
+
+import com.example.springmvc.common.utils.ThreadUtil;
+import com.example.springmvc.config.McpToolProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.server.McpSyncServerExchange;
+import io.modelcontextprotocol.spec.McpSchema;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * MCP工具异步执行器
+ *
+ * 把同步工具包装为 {@link McpServerFeatures.AsyncToolSpecification}：
+ * 阻塞的数据库操作在独立的执行器上运行，不占用MCP传输线程；
+ * 每个工具有独立的并发上限（超出时立即返回错误）和调用超时，
+ * 一个慢工具只会耗尽自己的配额，不会拖慢其他工具的调用
+ *
+ * 执行器在JDK 21+上使用虚拟线程，否则回退为有界的平台线程池
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class McpToolExecutor {
+
+    private final McpToolProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Scheduler scheduler;
+
+    public McpToolExecutor(McpToolProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.scheduler = createScheduler(properties);
+    }
+
+    /**
+     * 将同步工具包装为带并发上限和超时的异步工具
+     *
+     * @param spec 同步工具
+     * @return 异步工具
+     */
+    public McpServerFeatures.AsyncToolSpecification toAsync(McpServerFeatures.SyncToolSpecification spec) {
+        String name = spec.tool().name();
+        Duration timeout = properties.timeoutOf(name);
+        int maxConcurrency = properties.maxConcurrencyOf(name);
+        Semaphore permits = new Semaphore(maxConcurrency);
+        Counter rejected = rejectedCounter(name, "busy");
+        Counter timedOut = rejectedCounter(name, "timeout");
+        log.info("MCP异步工具: name={}, timeout={}, maxConcurrency={}", name, timeout, maxConcurrency);
+
+        return new McpServerFeatures.AsyncToolSpecification(spec.tool(), (exchange, arguments) ->
+                Mono.fromCallable(() -> {
+                            // 在工作线程上获取许可，调用被取消时不会遗留许可
+                            if (!permits.tryAcquire()) {
+                                rejected.increment();
+                                return errorResult("工具 " + name + " 繁忙，请稍后重试");
+                            }
+                            try {
+                                return spec.call().apply(new McpSyncServerExchange(exchange), arguments);
+                            } finally {
+                                permits.release();
+                            }
+                        })
+                        .subscribeOn(scheduler)
+                        .timeout(timeout)
+                        .onErrorResume(TimeoutException.class, e -> {
+                            timedOut.increment();
+                            log.warn("MCP工具调用超时: name={}, timeout={}", name, timeout);
+                            return Mono.just(errorResult("工具 " + name + " 执行超时"));
+                        }));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.dispose();
+    }
+
+    private Counter rejectedCounter(String tool, String reason) {
+        return Counter.builder("mcp.tool.rejected")
+                .tag("tool", tool)
+                .tag("reason", reason)
+                .description("MCP工具因并发上限或超时被拒绝的调用次数")
+                .register(meterRegistry);
+    }
+
+    private static McpSchema.CallToolResult errorResult(String message) {
+        return new McpSchema.CallToolResult(List.of(new McpSchema.TextContent(message)), true);
+    }
+
+    private static Scheduler createScheduler(McpToolProperties properties) {
+        if (properties.isVirtualThreads()) {
+            Optional<ExecutorService> executor = ThreadUtil.newVirtualThreadPerTaskExecutor();
+            if (executor.isPresent()) {
+                log.info("MCP工具执行器: 虚拟线程");
+                return Schedulers.fromExecutorService(executor.get(), "mcp-tools");
+            }
+        }
+        log.info("MCP工具执行器: 平台线程池, maxThreads={}", properties.getMaxThreads());
+        return Schedulers.newBoundedElastic(properties.getMaxThreads(),
+                Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE, "mcp-tools");
+    }
+
+}
@@ -0,0 +1,49 @@
+package com.example.springmvc.mcp;
+
+import io.modelcontextprotocol.server.McpServerFeatures;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.List;
+
+/**
+ * MCP 工具注册配置类
+ * 
+ * MCP Server 自动配置按 List 类型收集工具，{@link McpConfiguration} 中单独声明的工具
+ * 在这里汇总后注册：
+ * - ASYNC 模式：包装为异步工具，由 {@link McpToolExecutor} 在独立执行器上运行
+ * - SYNC 模式：原样注册同步工具
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+@Configuration
+public class McpToolRegistration {
+    
+    private static final Logger logger = LoggerFactory.getLogger(McpToolRegistration.class);
+
+    /**
+     * 异步模式下注册的工具
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "ASYNC")
+    public List<McpServerFeatures.AsyncToolSpecification> asyncToolSpecifications(
+            List<McpServerFeatures.SyncToolSpecification> tools, McpToolExecutor executor) {
+        logger.info("注册 {} 个 MCP 异步工具", tools.size());
+        return tools.stream().map(executor::toAsync).toList();
+    }
+
+    /**
+     * 同步模式下注册的工具
+     */
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.ai.mcp.server", name = "type", havingValue = "SYNC", matchIfMissing = true)
+    public List<McpServerFeatures.SyncToolSpecification> syncToolSpecifications(
+            List<McpServerFeatures.SyncToolSpecification> tools) {
+        logger.info("注册 {} 个 MCP 同步工具", tools.size());
+        return List.copyOf(tools);
+    }
+}
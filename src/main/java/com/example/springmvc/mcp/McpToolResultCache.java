@@ -0,0 +1,140 @@
+package com.example.springmvc.mcp;
+
+import com.example.springmvc.config.McpToolProperties;
+import com.example.springmvc.event.UserChangedEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import io.modelcontextprotocol.server.McpServerFeatures;
+import io.modelcontextprotocol.spec.McpSchema;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 只读MCP工具结果缓存
+ *
+ * 按（工具名, 归一化参数）缓存成功的调用结果，缓存的是已序列化的文本内容，
+ * 重复调用既不访问数据库也不经过Jackson；每个工具声明自己的TTL，
+ * 用户数据发生变更（{@link UserChangedEvent}）时清除所有依赖用户数据的工具结果
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class McpToolResultCache {
+
+    private final Cache<Key, Entry> results;
+
+    /**
+     * 用户数据版本，每次用户变更递增；
+     * 调用期间版本变化的结果不写入缓存，避免变更前读到的旧数据在失效后被回填
+     */
+    private final AtomicLong userGeneration = new AtomicLong();
+
+    public McpToolResultCache(McpToolProperties properties, MeterRegistry meterRegistry) {
+        this.results = Caffeine.newBuilder()
+                .maximumSize(properties.getResultCacheSize())
+                .expireAfter(new Expiry<Key, Entry>() {
+                    @Override
+                    public long expireAfterCreate(Key key, Entry entry, long currentTime) {
+                        return entry.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return entry.ttl().toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(Key key, Entry entry, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, results, "mcp.toolResults");
+    }
+
+    /**
+     * 缓存键：工具名和归一化后的参数
+     */
+    private record Key(String tool, String arguments) {
+    }
+
+    /**
+     * 缓存值：调用结果及其TTL
+     */
+    private record Entry(McpSchema.CallToolResult result, Duration ttl, boolean userData) {
+    }
+
+    /**
+     * 为同步工具增加结果缓存
+     *
+     * @param spec 同步工具
+     * @param ttl 结果缓存时间
+     * @param userData 结果是否依赖用户数据（用户变更时失效）
+     * @return 带缓存的同步工具
+     */
+    public McpServerFeatures.SyncToolSpecification memoize(McpServerFeatures.SyncToolSpecification spec,
+                                                          Duration ttl, boolean userData) {
+        String tool = spec.tool().name();
+        log.info("MCP工具结果缓存: name={}, ttl={}, userData={}", tool, ttl, userData);
+        return new McpServerFeatures.SyncToolSpecification(spec.tool(), (exchange, arguments) -> {
+            Key key = new Key(tool, normalize(arguments));
+            Entry cached = results.getIfPresent(key);
+            if (cached != null) {
+                return cached.result();
+            }
+
+            long generation = userGeneration.get();
+            McpSchema.CallToolResult result = spec.call().apply(exchange, arguments);
+            boolean error = Boolean.TRUE.equals(result.isError());
+            if (!error && (!userData || userGeneration.get() == generation)) {
+                results.put(key, new Entry(result, ttl, userData));
+            }
+            return result;
+        });
+    }
+
+    /**
+     * 用户变更事务提交后清除依赖用户数据的结果
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        userGeneration.incrementAndGet();
+        results.asMap().values().removeIf(Entry::userData);
+    }
+
+    /**
+     * 参数归一化：Map按键排序，数字去除末尾的0（1、1.0视为相同）
+     */
+    private static String normalize(Object value) {
+        if (value instanceof Map<?, ?> map) {
+            Map<String, String> sorted = new TreeMap<>();
+            map.forEach((k, v) -> sorted.put(String.valueOf(k), normalize(v)));
+            return sorted.toString();
+        }
+        if (value instanceof List<?> list) {
+            return list.stream().map(McpToolResultCache::normalize).toList().toString();
+        }
+        if (value instanceof Number number) {
+            return new BigDecimal(number.toString()).stripTrailingZeros().toPlainString();
+        }
+        if (value instanceof String text) {
+            return '"' + text + '"';
+        }
+        return String.valueOf(value);
+    }
+
+}
@@ -1,27 +1,35 @@
 package com.example.springmvc.repository;
 
 import com.example.springmvc.entity.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * 用户数据访问层接口
  * 
  * 继承JpaRepository获得基本的CRUD操作
  * 定义业务相关的查询方法
+ * 动态查询见 {@link UserRepositoryCustom}
  * 
  * @author example
  * @version 1.0.0
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserRepositoryCustom {
 
     /**
      * 根据用户名查找用户
@@ -64,6 +72,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
      */
     boolean existsByEmail(String email);
 
+    /**
+     * 批量查找已存在的用户名和邮箱
+     * 
+     * @param usernames 用户名集合
+     * @param emails 邮箱集合
+     * @return [用户名, 邮箱] 列表
+     */
+    @Query("SELECT u.username, u.email FROM User u WHERE u.username IN :usernames OR u.email IN :emails")
+    List<Object[]> findUsernamesAndEmails(@Param("usernames") Collection<String> usernames,
+                                          @Param("emails") Collection<String> emails);
+
+    /**
+     * 根据用户名批量查找用户ID
+     * 
+     * @param usernames 用户名集合
+     * @return [用户名, ID] 列表
+     */
+    @Query("SELECT u.username, u.id FROM User u WHERE u.username IN :usernames")
+    List<Object[]> findIdsByUsernames(@Param("usernames") Collection<String> usernames);
+
     /**
      * 根据状态查找用户列表
      * 
@@ -104,6 +132,59 @@ public interface UserRepository extends JpaRepository<User, Long> {
            "u.realName LIKE %:keyword%")
     Page<User> findByKeyword(@Param("keyword") String keyword, Pageable pageable);
 
+    /**
+     * 按ID升序查找大于指定ID的用户，用于分批遍历全表（不触发count查询）
+     * 
+     * @param id 起始ID（不含）
+     * @param pageable 批大小
+     * @return 用户列表
+     */
+    List<User> findByIdGreaterThanOrderByIdAsc(Long id, Pageable pageable);
+
+    /**
+     * 按ID批量修改用户状态（集合更新，不加载实体）
+     * 
+     * @param ids 用户ID集合
+     * @param status 目标状态
+     * @param updatedAt 更新时间
+     * @return 实际更新的行数
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE User u SET u.status = :status, u.updatedAt = :updatedAt " +
+           "WHERE u.id IN :ids AND u.status <> :status")
+    int updateStatusByIds(@Param("ids") Collection<Long> ids,
+                          @Param("status") Integer status,
+                          @Param("updatedAt") LocalDateTime updatedAt);
+
+    /**
+     * 按条件分批查找用户ID，按ID升序，用于批量修改状态
+     * 
+     * @param status 当前状态
+     * @param createdBefore 创建时间上限（不含）
+     * @param afterId 起始ID（不含）
+     * @param pageable 批大小
+     * @return 用户ID列表
+     */
+    @Query("SELECT u.id FROM User u WHERE u.status = :status AND u.createdAt < :createdBefore " +
+           "AND u.id > :afterId ORDER BY u.id")
+    List<Long> findIdsByStatusAndCreatedBefore(@Param("status") Integer status,
+                                               @Param("createdBefore") LocalDateTime createdBefore,
+                                               @Param("afterId") Long afterId,
+                                               Pageable pageable);
+
+    /**
+     * 以只读游标流式读取全部用户，按ID升序
+     * 需在事务内消费并关闭Stream；MySQL需开启 useCursorFetch 使fetchSize生效
+     * 
+     * @return 用户流
+     */
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT u FROM User u ORDER BY u.id")
+    Stream<User> streamAll();
+
     /**
      * 使用原生SQL查询 - 统计不同状态的用户数量
      * 
@@ -112,4 +193,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @Query(value = "SELECT status, COUNT(*) as count FROM users GROUP BY status", nativeQuery = true)
     List<Object[]> countUsersByStatus();
 
-}
\ No newline at end of file
+    /**
+     * 单次扫描聚合用户统计信息
+     * 
+     * @return 用户总数、启用用户数及资料完整度统计
+     */
+    @Query("SELECT COUNT(u) AS totalUsers, " +
+           "COALESCE(SUM(CASE WHEN u.status = 1 THEN 1 ELSE 0 END), 0) AS activeUsers, " +
+           "COALESCE(SUM(CASE WHEN u.realName IS NOT NULL AND u.realName <> '' THEN 1 ELSE 0 END), 0) AS usersWithRealName, " +
+           "COALESCE(SUM(CASE WHEN u.phone IS NOT NULL AND u.phone <> '' THEN 1 ELSE 0 END), 0) AS usersWithPhone " +
+           "FROM User u")
+    UserStatsView aggregateStats();
+
+}
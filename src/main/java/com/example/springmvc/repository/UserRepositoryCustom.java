@@ -0,0 +1,45 @@
+package com.example.springmvc.repository;
+
+import com.example.springmvc.dto.UserSummary;
+import com.example.springmvc.entity.User;
+import org.springframework.data.domain.Sort;
+
+import java.util.List;
+
+/**
+ * 用户数据访问层自定义接口
+ * 
+ * 声明无法通过方法名或JPQL直接表达的动态查询
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+public interface UserRepositoryCustom {
+
+    /**
+     * 键集（seek）分页查询
+     * 按 (排序字段, id) 定位到上一页末尾之后，不使用OFFSET，也不执行count查询
+     * 
+     * @param status 用户状态，为null时不过滤
+     * @param keyword 模糊搜索关键字，为null时不过滤
+     * @param order 排序字段及方向
+     * @param lastValue 上一页最后一条记录的排序字段值，首页为null
+     * @param lastId 上一页最后一条记录的ID，首页为null
+     * @param limit 最大返回条数
+     * @return 用户列表
+     */
+    List<User> findByKeyset(Integer status, String keyword, Sort.Order order,
+                            Comparable<?> lastValue, Long lastId, int limit);
+
+    /**
+     * 按ID升序查询用户摘要（投影查询，只读取摘要列）
+     * 
+     * @param status 用户状态，为null时不过滤
+     * @param afterId 起始ID（不含），为null时从头开始
+     * @param offset 跳过的条数
+     * @param limit 最大返回条数
+     * @return 用户摘要列表
+     */
+    List<UserSummary> findSummaries(Integer status, Long afterId, int offset, int limit);
+
+}
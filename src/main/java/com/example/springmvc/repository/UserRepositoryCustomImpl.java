@@ -0,0 +1,110 @@
+package com.example.springmvc.repository;
+
+import com.example.springmvc.dto.UserSummary;
+import com.example.springmvc.entity.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Sort;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 用户数据访问层自定义实现
+ * 
+ * 使用Criteria API构造动态查询
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+public class UserRepositoryCustomImpl implements UserRepositoryCustom {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<User> findByKeyset(Integer status, String keyword, Sort.Order order,
+                                   Comparable<?> lastValue, Long lastId, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<User> query = cb.createQuery(User.class);
+        Root<User> root = query.from(User.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (status != null) {
+            predicates.add(cb.equal(root.get("status"), status));
+        }
+        if (keyword != null) {
+            String pattern = "%" + keyword + "%";
+            predicates.add(cb.or(
+                    cb.like(root.get("username"), pattern),
+                    cb.like(root.get("email"), pattern),
+                    cb.like(root.get("realName"), pattern)));
+        }
+        if (lastId != null) {
+            predicates.add(seekPredicate(cb, root, order, lastValue, lastId));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+
+        if ("id".equals(order.getProperty())) {
+            query.orderBy(order.isAscending() ? cb.asc(root.get("id")) : cb.desc(root.get("id")));
+        } else {
+            query.orderBy(
+                    order.isAscending() ? cb.asc(root.get(order.getProperty())) : cb.desc(root.get(order.getProperty())),
+                    order.isAscending() ? cb.asc(root.get("id")) : cb.desc(root.get("id")));
+        }
+
+        return entityManager.createQuery(query)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @Override
+    public List<UserSummary> findSummaries(Integer status, Long afterId, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<UserSummary> query = cb.createQuery(UserSummary.class);
+        Root<User> root = query.from(User.class);
+        query.select(cb.construct(UserSummary.class,
+                root.get("id"), root.get("username"), root.get("realName"),
+                root.get("email"), root.get("status")));
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (status != null) {
+            predicates.add(cb.equal(root.get("status"), status));
+        }
+        if (afterId != null) {
+            predicates.add(cb.greaterThan(root.get("id"), afterId));
+        }
+        query.where(predicates.toArray(new Predicate[0]));
+        query.orderBy(cb.asc(root.get("id")));
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    /**
+     * 构造定位条件：
+     * 升序为 (value > last) OR (value = last AND id > lastId)，降序反之
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private Predicate seekPredicate(CriteriaBuilder cb, Root<User> root, Sort.Order order,
+                                    Comparable lastValue, Long lastId) {
+        Expression<Long> id = root.get("id");
+        Predicate afterId = order.isAscending() ? cb.greaterThan(id, lastId) : cb.lessThan(id, lastId);
+        if ("id".equals(order.getProperty())) {
+            return afterId;
+        }
+        Expression<Comparable> value = root.get(order.getProperty());
+        Predicate afterValue = order.isAscending()
+                ? cb.greaterThan(value, lastValue)
+                : cb.lessThan(value, lastValue);
+        return cb.or(afterValue, cb.and(cb.equal(value, lastValue), afterId));
+    }
+
+}
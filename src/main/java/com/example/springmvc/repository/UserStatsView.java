@@ -0,0 +1,31 @@
+package com.example.springmvc.repository;
+
+/**
+ * 用户统计聚合查询投影
+ * 
+ * @author example
+ * @version 1.0.0
+ */
+public interface UserStatsView {
+
+    /**
+     * @return 用户总数
+     */
+    Long getTotalUsers();
+
+    /**
+     * @return 启用状态的用户数
+     */
+    Long getActiveUsers();
+
+    /**
+     * @return 填写了真实姓名的用户数
+     */
+    Long getUsersWithRealName();
+
+    /**
+     * @return 填写了手机号的用户数
+     */
+    Long getUsersWithPhone();
+
+}
@@ -0,0 +1,351 @@
+package com.example.springmvc.search;
+
+import com.example.springmvc.config.UserSearchProperties;
+import com.example.springmvc.entity.User;
+import com.example.springmvc.event.RemoteUserChangedEvent;
+import com.example.springmvc.event.UserChangedEvent;
+import com.example.springmvc.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户内存倒排索引
+ *
+ * 对用户名、邮箱、真实姓名按字符二元组（bigram）建立倒排表，
+ * 按Unicode码点切分，中文姓名同样适用。
+ * 查询时取关键字所有二元组倒排表的交集，再用原文做包含校验，
+ * 语义与 {@code LIKE %keyword%} 一致，但无需全表扫描。
+ *
+ * 启动完成后全量构建，之后通过本节点的 {@link UserChangedEvent} 和其他节点经失效总线转发的
+ * {@link RemoteUserChangedEvent} 增量维护（按ID重新读取数据库）；
+ * 全量构建期间发生变更的用户以增量结果为准，构建批次中读到的旧数据不会覆盖它们。
+ * 索引未就绪、关键字不足两个字符或排序字段不受支持时返回空，由调用方回退到数据库查询
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class UserSearchIndex {
+
+    private static final int GRAM_SIZE = 2;
+
+    private static final char FIELD_SEPARATOR = '\u0000';
+
+    private final UserRepository userRepository;
+    private final UserSearchProperties properties;
+
+    /**
+     * 用户ID -> 索引文档
+     */
+    private final Map<Long, IndexedUser> documents = new ConcurrentHashMap<>();
+
+    /**
+     * 二元组 -> 用户ID集合
+     */
+    private final Map<String, Set<Long>> postings = new ConcurrentHashMap<>();
+
+    /**
+     * 全量构建期间被增量更新过的用户ID，构建批次跳过这些用户
+     */
+    private final Set<Long> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private volatile boolean rebuilding;
+
+    private volatile boolean ready;
+
+    public UserSearchIndex(UserRepository userRepository, UserSearchProperties properties) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * 索引文档：归一化后的检索文本和排序字段
+     */
+    private record IndexedUser(Long id, String text, LocalDateTime createdAt) {
+    }
+
+    /**
+     * 应用启动完成后全量构建索引
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuild() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        long start = System.currentTimeMillis();
+        rebuilding = true;
+        try {
+            Pageable batch = PageRequest.of(0, properties.getRebuildBatchSize());
+            long lastId = 0L;
+            List<User> users;
+            do {
+                users = userRepository.findByIdGreaterThanOrderByIdAsc(lastId, batch);
+                indexBatch(users);
+                if (!users.isEmpty()) {
+                    lastId = users.get(users.size() - 1).getId();
+                }
+            } while (users.size() == batch.getPageSize());
+        } finally {
+            rebuilding = false;
+            changedDuringRebuild.clear();
+        }
+        ready = true;
+        log.info("用户搜索索引构建完成: documents={}, grams={}, cost={}ms",
+                documents.size(), postings.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 用户变更事务提交后增量更新索引
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        markChanged(event.getUserIds());
+        if (event.getType() == UserChangedEvent.Type.DELETED) {
+            event.getUserIds().forEach(this::remove);
+            return;
+        }
+        refresh(event.getUserIds());
+    }
+
+    /**
+     * 其他节点的用户变更：按ID重新读取，已删除的用户从索引中移除
+     */
+    @EventListener
+    public void onRemoteUserChanged(RemoteUserChangedEvent event) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        markChanged(event.getUserIds());
+        refresh(event.getUserIds());
+    }
+
+    /**
+     * 按关键字搜索，返回当前页的用户ID（按分页参数排序）
+     *
+     * @param keyword 搜索关键字
+     * @param pageable 分页信息，排序仅支持 id、createdAt
+     * @return 用户ID分页结果；索引无法处理时返回空
+     */
+    public Optional<Page<Long>> search(String keyword, Pageable pageable) {
+        Comparator<IndexedUser> comparator = comparator(pageable.getSort());
+        List<IndexedUser> matched = matchSorted(keyword, comparator);
+        if (matched == null) {
+            return Optional.empty();
+        }
+
+        int from = (int) Math.min(pageable.getOffset(), matched.size());
+        int to = Math.min(from + pageable.getPageSize(), matched.size());
+        List<Long> ids = matched.subList(from, to).stream()
+                .map(IndexedUser::id)
+                .toList();
+        return Optional.of(new PageImpl<>(ids, pageable, matched.size()));
+    }
+
+    /**
+     * 按关键字做键集分页搜索，返回定位点之后的用户ID
+     *
+     * @param keyword 搜索关键字
+     * @param order 排序字段及方向，仅支持 id、createdAt
+     * @param lastCreatedAt 上一页最后一条记录的创建时间，首页为null
+     * @param lastId 上一页最后一条记录的ID，首页为null
+     * @param limit 最大返回条数
+     * @return 用户ID列表；索引无法处理时返回空
+     */
+    public Optional<List<Long>> searchAfter(String keyword, Sort.Order order,
+                                            LocalDateTime lastCreatedAt, Long lastId, int limit) {
+        Comparator<IndexedUser> comparator = comparator(Sort.by(order));
+        List<IndexedUser> matched = matchSorted(keyword, comparator);
+        if (matched == null) {
+            return Optional.empty();
+        }
+
+        IndexedUser position = lastId != null ? new IndexedUser(lastId, "", lastCreatedAt) : null;
+        return Optional.of(matched.stream()
+                .filter(document -> position == null || comparator.compare(document, position) > 0)
+                .limit(limit)
+                .map(IndexedUser::id)
+                .toList());
+    }
+
+    /**
+     * 匹配并排序；索引未就绪、关键字过短或排序不受支持时返回null
+     */
+    private List<IndexedUser> matchSorted(String keyword, Comparator<IndexedUser> comparator) {
+        if (!ready || keyword == null || comparator == null) {
+            return null;
+        }
+        String normalized = normalize(keyword);
+        if (normalized.codePointCount(0, normalized.length()) < GRAM_SIZE) {
+            return null;
+        }
+        List<IndexedUser> matched = match(normalized);
+        matched.sort(comparator);
+        return matched;
+    }
+
+    /**
+     * 取所有二元组倒排表的交集，再做包含校验剔除误命中
+     */
+    private List<IndexedUser> match(String keyword) {
+        List<Set<Long>> lists = new ArrayList<>();
+        for (String gram : grams(keyword)) {
+            Set<Long> ids = postings.get(gram);
+            if (ids == null) {
+                return new ArrayList<>();
+            }
+            lists.add(ids);
+        }
+        lists.sort(Comparator.comparingInt(Set::size));
+
+        List<IndexedUser> matched = new ArrayList<>();
+        Set<Long> smallest = lists.get(0);
+        List<Set<Long>> others = lists.subList(1, lists.size());
+        for (Long id : smallest) {
+            if (others.stream().allMatch(ids -> ids.contains(id))) {
+                IndexedUser document = documents.get(id);
+                if (document != null && document.text().contains(keyword)) {
+                    matched.add(document);
+                }
+            }
+        }
+        return matched;
+    }
+
+    /**
+     * 全量构建期间先登记再读取数据库，保证构建批次不会用更早读到的数据覆盖增量结果
+     */
+    private void markChanged(List<Long> ids) {
+        if (rebuilding) {
+            changedDuringRebuild.addAll(ids);
+        }
+    }
+
+    private void refresh(List<Long> ids) {
+        Set<Long> missing = new HashSet<>(ids);
+        for (User user : userRepository.findAllById(ids)) {
+            index(user);
+            missing.remove(user.getId());
+        }
+        missing.forEach(this::remove);
+    }
+
+    private synchronized void indexBatch(List<User> users) {
+        for (User user : users) {
+            if (!changedDuringRebuild.contains(user.getId())) {
+                index(user);
+            }
+        }
+    }
+
+    private synchronized void index(User user) {
+        removeInternal(user.getId());
+        String text = normalize(user.getUsername()) + FIELD_SEPARATOR
+                + normalize(user.getEmail()) + FIELD_SEPARATOR
+                + normalize(user.getRealName());
+        IndexedUser document = new IndexedUser(user.getId(), text, user.getCreatedAt());
+        documents.put(user.getId(), document);
+        for (String gram : grams(text)) {
+            postings.computeIfAbsent(gram, key -> ConcurrentHashMap.newKeySet()).add(user.getId());
+        }
+    }
+
+    private synchronized void remove(Long id) {
+        removeInternal(id);
+    }
+
+    private void removeInternal(Long id) {
+        IndexedUser previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String gram : grams(previous.text())) {
+            Set<Long> ids = postings.get(gram);
+            if (ids != null) {
+                ids.remove(id);
+                if (ids.isEmpty()) {
+                    postings.remove(gram, ids);
+                }
+            }
+        }
+    }
+
+    /**
+     * 按码点切分二元组，不跨越字段分隔符
+     */
+    private static Set<String> grams(String text) {
+        Set<String> grams = new HashSet<>();
+        int[] codePoints = text.codePoints().toArray();
+        for (int i = 0; i + GRAM_SIZE <= codePoints.length; i++) {
+            boolean crossesField = false;
+            for (int j = i; j < i + GRAM_SIZE; j++) {
+                if (codePoints[j] == FIELD_SEPARATOR) {
+                    crossesField = true;
+                    break;
+                }
+            }
+            if (!crossesField) {
+                grams.add(new String(codePoints, i, GRAM_SIZE));
+            }
+        }
+        return grams;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 构造排序比较器，未指定排序时按ID升序；包含不支持的字段时返回null。
+     * 最后按ID定序，方向与最后一个排序字段一致，与数据库键集分页
+     * （UserRepositoryCustom#findByKeyset）的顺序相同，游标可在两条路径间续读
+     */
+    private static Comparator<IndexedUser> comparator(Sort sort) {
+        Comparator<IndexedUser> comparator = null;
+        boolean descending = false;
+        for (Sort.Order order : sort) {
+            Comparator<IndexedUser> next = switch (order.getProperty()) {
+                case "id" -> Comparator.comparing(IndexedUser::id);
+                case "createdAt" -> Comparator.comparing(IndexedUser::createdAt,
+                        Comparator.nullsFirst(Comparator.naturalOrder()));
+                default -> null;
+            };
+            if (next == null) {
+                return null;
+            }
+            descending = order.isDescending();
+            if (descending) {
+                next = next.reversed();
+            }
+            comparator = comparator == null ? next : comparator.thenComparing(next);
+        }
+        Comparator<IndexedUser> byId = Comparator.comparing(IndexedUser::id);
+        if (descending) {
+            byId = byId.reversed();
+        }
+        return comparator == null ? byId : comparator.thenComparing(byId);
+    }
+
+}
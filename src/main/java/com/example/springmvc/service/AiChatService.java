@@ -2,7 +2,9 @@ package com.example.springmvc.service;
 
 import com.example.springmvc.dto.ChatRequest;
 import com.example.springmvc.dto.ChatResponse;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.publisher.Flux;
 
 /**
  * AI聊天服务接口
@@ -14,6 +16,7 @@ public interface AiChatService {
      * 
      * @param request 聊天请求
      * @return AI回复
+     * @throws com.example.springmvc.common.exception.TooManyRequestsException 超过客户端的请求数或token限额
      */
     ChatResponse chat(ChatRequest request);
     
@@ -22,6 +25,7 @@ public interface AiChatService {
      * 
      * @param message 用户消息
      * @return AI回复文本
+     * @throws com.example.springmvc.common.exception.TooManyRequestsException 超过客户端的请求数或token限额
      */
     String simpleChat(String message);
 
@@ -30,6 +34,16 @@ public interface AiChatService {
      *
      * @param message 用户消息
      * @return SseEmitter 用于服务端推送
+     * @throws com.example.springmvc.common.exception.TooManyRequestsException 并发流数已达上限，或超过客户端的请求数或token限额
      */
     SseEmitter streamChat(String message);
-}
\ No newline at end of file
+
+    /**
+     * 响应式流式输出聊天，按客户端的消费速度读取上游，客户端断开时立即中止上游请求
+     *
+     * @param message 用户消息
+     * @return SSE事件流
+     * @throws com.example.springmvc.common.exception.TooManyRequestsException 并发流数已达上限，或超过客户端的请求数或token限额
+     */
+    Flux<ServerSentEvent<String>> streamChatReactive(String message);
+}
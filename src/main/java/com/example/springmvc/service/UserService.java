@@ -1,11 +1,19 @@
 package com.example.springmvc.service;
 
+import com.example.springmvc.common.response.CursorPageResponse;
+import com.example.springmvc.dto.UserBatchResponse;
+import com.example.springmvc.dto.UserBatchStatusRequest;
+import com.example.springmvc.dto.UserBatchStatusResult;
 import com.example.springmvc.dto.UserCreateRequest;
+import com.example.springmvc.dto.UserImportResult;
 import com.example.springmvc.dto.UserResponse;
 import com.example.springmvc.dto.UserUpdateRequest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
 
 /**
@@ -27,6 +35,16 @@ public interface UserService {
      */
     UserResponse createUser(UserCreateRequest request);
 
+    /**
+     * 批量导入用户
+     * 在内存中去重，按批次用一次查询检查已存在的用户名和邮箱，
+     * 并使用JDBC批量插入；每个批次独立提交
+     * 
+     * @param requests 用户创建请求列表
+     * @return 逐行导入结果
+     */
+    UserImportResult importUsers(List<UserCreateRequest> requests);
+
     /**
      * 根据ID获取用户信息
      * 
@@ -35,6 +53,15 @@ public interface UserService {
      */
     UserResponse getUserById(Long id);
 
+    /**
+     * 根据ID列表批量获取用户信息
+     * 优先读取缓存，未命中的ID通过一次IN查询加载
+     * 
+     * @param ids 用户ID列表
+     * @return 与请求顺序一致的用户列表及不存在的ID
+     */
+    UserBatchResponse getUsersByIds(List<Long> ids);
+
     /**
      * 根据用户名获取用户信息
      * 
@@ -66,6 +93,16 @@ public interface UserService {
      */
     List<UserResponse> getAllUsers();
 
+    /**
+     * 以NDJSON格式流式导出全部用户（每行一个用户JSON）
+     * 使用数据库游标逐行读取，内存占用与用户总数无关
+     * 
+     * @param outputStream 输出流
+     * @return 导出的用户数
+     * @throws IOException 写出失败时抛出
+     */
+    long exportUsers(OutputStream outputStream) throws IOException;
+
     /**
      * 分页获取用户列表
      * 
@@ -92,6 +129,28 @@ public interface UserService {
      */
     Page<UserResponse> searchUsers(String keyword, Pageable pageable);
 
+    /**
+     * 游标（键集）分页获取用户列表
+     * 按 (排序字段, id) 定位，不执行count查询
+     * 
+     * @param status 用户状态，为null时不过滤
+     * @param order 排序字段及方向，支持 id、createdAt、username
+     * @param cursor 上一页返回的游标，首页为null
+     * @param size 每页大小
+     * @return 游标分页用户列表
+     */
+    CursorPageResponse<UserResponse> scrollUsers(Integer status, Sort.Order order, String cursor, int size);
+
+    /**
+     * 游标（键集）分页搜索用户，按创建时间倒序
+     * 
+     * @param keyword 搜索关键字
+     * @param cursor 上一页返回的游标，首页为null
+     * @param size 每页大小
+     * @return 游标分页用户列表
+     */
+    CursorPageResponse<UserResponse> scrollSearchUsers(String keyword, String cursor, int size);
+
     /**
      * 检查用户名是否存在
      * 
@@ -124,4 +183,13 @@ public interface UserService {
      */
     UserResponse disableUser(Long id);
 
+    /**
+     * 批量修改用户状态
+     * 按ID列表或过滤条件选择用户，分批执行集合更新并失效缓存
+     * 
+     * @param request 批量修改请求
+     * @return 匹配数和实际更新数
+     */
+    UserBatchStatusResult batchUpdateStatus(UserBatchStatusRequest request);
+
 }
\ No newline at end of file
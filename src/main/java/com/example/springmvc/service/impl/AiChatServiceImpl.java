@@ -1,65 +1,100 @@
 package com.example.springmvc.service.impl;
 
+import com.example.springmvc.ai.AiStreamExecutor;
+import com.example.springmvc.ai.ChatDelta;
+import com.example.springmvc.ai.SiliconFlowStreamClient;
+import com.example.springmvc.ai.TokenCoalescer;
+import com.example.springmvc.ai.TokenRateLimiter;
+import com.example.springmvc.ai.TokenUsage;
+import com.example.springmvc.ai.TokenUsageRecorder;
+import com.example.springmvc.cache.ChatResponseCache;
+import com.example.springmvc.common.exception.BusinessException;
+import com.example.springmvc.common.exception.TooManyRequestsException;
+import com.example.springmvc.config.AiModelProperties;
 import com.example.springmvc.dto.ChatRequest;
 import com.example.springmvc.dto.ChatResponse;
 import com.example.springmvc.service.AiChatService;
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.model.ChatModel;
 import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.metadata.Usage;
+import org.springframework.ai.chat.prompt.ChatOptions;
 import org.springframework.ai.chat.prompt.Prompt;
-import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.stereotype.Service;
 import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
 
-import java.io.BufferedReader;
-import java.io.InputStream;
-import java.io.InputStreamReader;
-import java.net.HttpURLConnection;
-import java.net.URL;
-import java.nio.charset.StandardCharsets;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * AI聊天服务实现类
  */
+@Slf4j
 @Service
 public class AiChatServiceImpl implements AiChatService {
 
     private final ChatModel chatModel;
-    private final ObjectMapper objectMapper = new ObjectMapper();
-
-    @Value("${spring.ai.openai.api-key}")
-    private String apiKey;
-
-    @Value("${spring.ai.openai.base-url}")
-    private String baseUrl;
+    private final SiliconFlowStreamClient streamClient;
+    private final AiStreamExecutor streamExecutor;
+    private final TokenCoalescer tokenCoalescer;
+    private final ChatResponseCache responseCache;
+    private final TokenRateLimiter rateLimiter;
+    private final TokenUsageRecorder usageRecorder;
+    private final AiModelProperties modelProperties;
     
-    public AiChatServiceImpl(ChatModel chatModel) {
+    public AiChatServiceImpl(ChatModel chatModel, SiliconFlowStreamClient streamClient,
+                             AiStreamExecutor streamExecutor, TokenCoalescer tokenCoalescer,
+                             ChatResponseCache responseCache, TokenRateLimiter rateLimiter,
+                             TokenUsageRecorder usageRecorder, AiModelProperties modelProperties) {
         this.chatModel = chatModel;
+        this.streamClient = streamClient;
+        this.streamExecutor = streamExecutor;
+        this.tokenCoalescer = tokenCoalescer;
+        this.responseCache = responseCache;
+        this.rateLimiter = rateLimiter;
+        this.usageRecorder = usageRecorder;
+        this.modelProperties = modelProperties;
+    }
+
+    /**
+     * 一次聊天的结果
+     *
+     * @param content 回复内容
+     * @param finishReason 完成原因
+     * @param usage 本次请求实际消耗的用量（命中缓存或合并到其他请求时为 {@link TokenUsage#NONE}）
+     */
+    private record Reply(String content, String finishReason, TokenUsage usage) {
     }
 
     @Override
     public ChatResponse chat(ChatRequest request) {
+        // 合并请求选项与模型默认值，模型不在允许列表中时返回400
+        ChatOptions options = resolveOptions(request.getModel(), request.getTemperature(), request.getMaxTokens());
         try {
             System.out.println("发送AI聊天请求: " + request.getMessage());
             
-            // 构建消息
-            UserMessage userMessage = new UserMessage(request.getMessage());
-            Prompt prompt = new Prompt(userMessage);
-            
-            // 调用AI服务
-            org.springframework.ai.chat.model.ChatResponse response = chatModel.call(prompt);
+            // 调用AI服务（确定性请求优先读缓存）
+            Reply reply = call(request.getMessage(), options);
             
             // 构建响应
             ChatResponse chatResponse = new ChatResponse();
-            chatResponse.setContent(response.getResult().getOutput().getText());
-            chatResponse.setModel("默认模型");
-            chatResponse.setTotalTokens(0); // 简化处理
-            chatResponse.setFinishReason("完成");
+            chatResponse.setContent(reply.content());
+            chatResponse.setModel(options.getModel());
+            chatResponse.setPromptTokens(reply.usage().promptTokens());
+            chatResponse.setCompletionTokens(reply.usage().completionTokens());
+            chatResponse.setTotalTokens(reply.usage().totalTokens());
+            chatResponse.setFinishReason(reply.finishReason());
             
             System.out.println("AI聊天响应成功");
             return chatResponse;
             
+        } catch (BusinessException e) {
+            log.warn("AI聊天请求失败: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             System.err.println("AI聊天请求失败: " + e.getMessage());
             throw new RuntimeException("AI聊天服务异常: " + e.getMessage(), e);
@@ -71,15 +106,14 @@ public class AiChatServiceImpl implements AiChatService {
         try {
             System.out.println("发送简单AI聊天请求: " + message);
             
-            UserMessage userMessage = new UserMessage(message);
-            Prompt prompt = new Prompt(userMessage);
-            org.springframework.ai.chat.model.ChatResponse response = chatModel.call(prompt);
-            
-            String responseContent = response.getResult().getOutput().getText();
+            String responseContent = call(message, resolveOptions(null, null, null)).content();
             
             System.out.println("简单AI聊天响应成功");
             return responseContent;
             
+        } catch (BusinessException e) {
+            log.warn("简单AI聊天请求失败: {}", e.getMessage());
+            throw e;
         } catch (Exception e) {
             System.err.println("简单AI聊天请求失败: " + e.getMessage());
             throw new RuntimeException("AI聊天服务异常: " + e.getMessage(), e);
@@ -89,67 +123,103 @@ public class AiChatServiceImpl implements AiChatService {
     @Override
     public SseEmitter streamChat(String message) {
         SseEmitter emitter = new SseEmitter(0L);
-        new Thread(() -> {
-            HttpURLConnection connection = null;
-            try {
-                String api = baseUrl + "/chat/completions";
-                URL url = new URL(api);
-                connection = (HttpURLConnection) url.openConnection();
-                connection.setRequestMethod("POST");
-                connection.setRequestProperty("Authorization", "Bearer " + apiKey);
-                connection.setRequestProperty("Content-Type", "application/json");
-                connection.setRequestProperty("Accept", "application/json");
-                connection.setDoOutput(true);
+        Disposable subscription = tokens(message)
+                .subscribe(
+                        token -> send(emitter, "token", token),
+                        error -> {
+                            if (error instanceof TooManyRequestsException) {
+                                // 许可在订阅时同步获取，此时尚未写出任何事件，交给全局异常处理返回429
+                                emitter.completeWithError(error);
+                                return;
+                            }
+                            try {
+                                emitter.send(SseEmitter.event().name("error").data(error.getMessage()));
+                            } catch (Exception ignore) {}
+                            emitter.completeWithError(error);
+                        },
+                        emitter::complete);
+        // 客户端断开或超时时取消订阅，立即中止上游请求
+        emitter.onCompletion(subscription::dispose);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(error -> subscription.dispose());
+        return emitter;
+    }
+
+    @Override
+    public Flux<ServerSentEvent<String>> streamChatReactive(String message) {
+        return tokens(message)
+                .map(token -> ServerSentEvent.builder(token).event("token").build())
+                .onErrorResume(error -> !(error instanceof TooManyRequestsException), error -> Flux.just(
+                        ServerSentEvent.builder(String.valueOf(error.getMessage())).event("error").build()));
+    }
+
+    /**
+     * 未命中缓存时按调用方各自限流（合并到他人请求的调用方也要先通过自己的限额），
+     * 只有实际调用上游的一方按实际用量记账；命中缓存的请求不限流、不计用量
+     */
+    private Reply call(String message, ChatOptions options) {
+        String clientId = rateLimiter.currentClientId();
+        AtomicReference<TokenUsage> upstreamUsage = new AtomicReference<>(TokenUsage.NONE);
+        ChatResponseCache.Reply reply = responseCache.get(message, options, () -> rateLimiter.acquire(clientId), () -> {
+            org.springframework.ai.chat.model.ChatResponse response =
+                    chatModel.call(new Prompt(new UserMessage(message), options));
+            TokenUsage usage = usageOf(response);
+            recordUsage(clientId, response.getMetadata().getModel() != null
+                    ? response.getMetadata().getModel() : options.getModel(), usage);
+            upstreamUsage.set(usage);
+            return response.getResult();
+        });
+        return new Reply(reply.content(), reply.finishReason(), upstreamUsage.get());
+    }
 
-                String payload = "{" +
-                        "\"model\":\"deepseek-ai/DeepSeek-V2.5\"," +
-                        "\"messages\":[{" +
-                        "\"role\":\"user\",\"content\":" + objectMapper.writeValueAsString(message) +
-                        "}]," +
-                        "\"stream\":true}";
+    private static TokenUsage usageOf(org.springframework.ai.chat.model.ChatResponse response) {
+        Usage usage = response.getMetadata().getUsage();
+        if (usage == null) {
+            return TokenUsage.NONE;
+        }
+        int prompt = usage.getPromptTokens() != null ? usage.getPromptTokens() : 0;
+        int completion = usage.getCompletionTokens() != null ? usage.getCompletionTokens() : 0;
+        int total = usage.getTotalTokens() != null ? usage.getTotalTokens() : prompt + completion;
+        return new TokenUsage(prompt, completion, total);
+    }
 
-                connection.getOutputStream().write(payload.getBytes(StandardCharsets.UTF_8));
-                connection.getOutputStream().flush();
+    private void recordUsage(String clientId, String model, TokenUsage usage) {
+        usageRecorder.record(clientId, model, usage);
+        rateLimiter.consume(clientId, usage);
+    }
 
-                int code = connection.getResponseCode();
-                InputStream inputStream = code >= 200 && code < 300 ? connection.getInputStream() : connection.getErrorStream();
-                if (inputStream == null) {
-                    emitter.completeWithError(new IllegalStateException("No response stream"));
-                    return;
-                }
+    /**
+     * 未指定的选项取模型默认值，保证缓存key反映实际生效的参数
+     */
+    private ChatOptions resolveOptions(String model, Double temperature, Integer maxTokens) {
+        ChatOptions defaults = chatModel.getDefaultOptions();
+        if (model != null && !model.equals(defaults.getModel()) && !modelProperties.getAllowed().contains(model)) {
+            throw new IllegalArgumentException("不支持的模型: " + model);
+        }
+        return ChatOptions.builder()
+                .model(model != null ? model : defaults.getModel())
+                .temperature(temperature != null ? temperature : defaults.getTemperature())
+                .maxTokens(maxTokens != null ? maxTokens : defaults.getMaxTokens())
+                .build();
+    }
 
-                try (BufferedReader reader = new BufferedReader(new InputStreamReader(inputStream, StandardCharsets.UTF_8))) {
-                    String line;
-                    while ((line = reader.readLine()) != null) {
-                        if (line.isEmpty()) continue;
-                        if (line.startsWith("data: ")) {
-                            String json = line.substring(6).trim();
-                            if ("[DONE]".equals(json)) {
-                                break;
-                            }
-                            JsonNode node = objectMapper.readTree(json);
-                            JsonNode delta = node.path("choices").path(0).path("delta");
-                            String content = delta.path("content").asText("");
-                            String reasoning = delta.path("reasoning_content").asText("");
-                            String token = !content.isEmpty() ? content : reasoning;
-                            if (!token.isEmpty()) {
-                                emitter.send(SseEmitter.event().name("token").data(token));
-                            }
-                        }
-                    }
-                }
-                emitter.complete();
-            } catch (Exception e) {
-                try {
-                    emitter.send(SseEmitter.event().name("error").data(e.getMessage()));
-                } catch (Exception ignore) {}
-                emitter.completeWithError(e);
-            } finally {
-                if (connection != null) {
-                    connection.disconnect();
-                }
-            }
-        }).start();
-        return emitter;
+    /**
+     * 按客户端限流后在流执行器上读取上游，按合并窗口批量下发token；上游正常结束时按实际用量记账
+     */
+    private Flux<String> tokens(String message) {
+        String clientId = rateLimiter.currentClientId();
+        rateLimiter.acquire(clientId);
+        Flux<ChatDelta> deltas = streamClient.stream(message,
+                usage -> recordUsage(clientId, streamClient.model(), usage));
+        return tokenCoalescer.coalesce(streamExecutor.run(deltas.map(ChatDelta::token)));
+    }
+
+    private static void send(SseEmitter emitter, String event, String data) {
+        try {
+            emitter.send(SseEmitter.event().name(event).data(data));
+        } catch (IOException e) {
+            // 写失败（通常是客户端已断开）时抛出，订阅随之取消
+            throw new UncheckedIOException(e);
+        }
     }
-}
\ No newline at end of file
+}
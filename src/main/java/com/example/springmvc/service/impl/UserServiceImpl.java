@@ -1,25 +1,67 @@
 package com.example.springmvc.service.impl;
 
+import com.example.springmvc.cache.UserCache;
 import com.example.springmvc.common.exception.ResourceExistsException;
 import com.example.springmvc.common.exception.ResourceNotFoundException;
+import com.example.springmvc.common.response.CursorPageResponse;
+import com.example.springmvc.common.utils.CursorUtil;
 import com.example.springmvc.common.utils.BeanUtil;
 import com.example.springmvc.common.utils.PasswordUtil;
+import com.example.springmvc.dto.UserBatchResponse;
+import com.example.springmvc.dto.UserBatchStatusRequest;
+import com.example.springmvc.dto.UserBatchStatusResult;
 import com.example.springmvc.dto.UserCreateRequest;
+import com.example.springmvc.dto.UserImportResult;
 import com.example.springmvc.dto.UserResponse;
 import com.example.springmvc.dto.UserUpdateRequest;
 import com.example.springmvc.entity.User;
+import com.example.springmvc.event.UserChangedEvent;
+import com.example.springmvc.event.UserStatsDelta;
 import com.example.springmvc.repository.UserRepository;
+import com.example.springmvc.search.UserSearchIndex;
 import com.example.springmvc.service.UserService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.BeanUtils;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 /**
  * 用户业务逻辑层实现类
@@ -36,8 +78,68 @@ import java.util.stream.Collectors;
 @Transactional(readOnly = true)
 public class UserServiceImpl implements UserService {
 
+    /**
+     * 游标分页支持的排序字段
+     */
+    private static final Set<String> SCROLL_SORT_PROPERTIES = Set.of("id", "createdAt", "username");
+
+    /**
+     * 游标分页的最大每页大小
+     */
+    private static final int SCROLL_MAX_SIZE = 100;
+
+    /**
+     * 流式导出时每写出多少行刷新一次输出流
+     */
+    private static final int EXPORT_FLUSH_ROWS = 500;
+
+    /**
+     * 批量导入的单批次行数
+     */
+    private static final int IMPORT_CHUNK_SIZE = 500;
+
+    /**
+     * 单次批量导入的最大行数
+     */
+    private static final int IMPORT_MAX_ROWS = 50_000;
+
+    /**
+     * 批量修改状态的单批次用户数
+     */
+    private static final int STATUS_CHUNK_SIZE = 1000;
+
+    /**
+     * 按ID列表批量修改状态时的最大ID数
+     */
+    private static final int STATUS_MAX_IDS = 10_000;
+
+    /**
+     * 批量查询的最大ID数
+     */
+    private static final int BATCH_MAX_IDS = 200;
+
+    private static final String INSERT_USER_SQL = "INSERT INTO users " +
+            "(username, email, password, real_name, phone, status, created_at, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
     private final UserRepository userRepository;
 
+    private final UserCache userCache;
+
+    private final UserSearchIndex userSearchIndex;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final EntityManager entityManager;
+
+    private final ObjectMapper objectMapper;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final Validator validator;
+
     @Override
     @Transactional
     public UserResponse createUser(UserCreateRequest request) {
@@ -62,29 +164,116 @@ public class UserServiceImpl implements UserService {
         
         // 保存用户
         User savedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(UserChangedEvent.Type.CREATED, savedUser.getId(),
+                UserStatsDelta.of(savedUser)));
         
         log.info("用户创建成功: {}", savedUser.getId());
         return convertToResponse(savedUser);
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserImportResult importUsers(List<UserCreateRequest> requests) {
+        log.info("批量导入用户: {} 行", requests.size());
+        
+        if (requests.size() > IMPORT_MAX_ROWS) {
+            throw new IllegalArgumentException("单次最多导入 " + IMPORT_MAX_ROWS + " 个用户");
+        }
+        
+        List<UserImportResult.Row> rows = new ArrayList<>(requests.size());
+        List<Integer> candidates = new ArrayList<>();
+        Set<String> seenUsernames = new HashSet<>();
+        Set<String> seenEmails = new HashSet<>();
+        
+        // 参数校验和批次内去重
+        for (int i = 0; i < requests.size(); i++) {
+            UserCreateRequest request = requests.get(i);
+            UserImportResult.Row row = new UserImportResult.Row(i, request == null ? null : request.getUsername(),
+                    null, null, null);
+            rows.add(row);
+            
+            String violation = request == null ? "请求行不能为空" : firstViolation(request);
+            if (violation != null) {
+                row.setStatus(UserImportResult.RowStatus.INVALID);
+                row.setMessage(violation);
+            } else if (seenUsernames.contains(normalizeKey(request.getUsername()))
+                    || seenEmails.contains(normalizeKey(request.getEmail()))) {
+                row.setStatus(UserImportResult.RowStatus.DUPLICATE_IN_REQUEST);
+                row.setMessage("与本批次前面的用户名或邮箱重复");
+            } else {
+                seenUsernames.add(normalizeKey(request.getUsername()));
+                seenEmails.add(normalizeKey(request.getEmail()));
+                candidates.add(i);
+            }
+        }
+        
+        // 分批检查已存在记录并批量插入，每批独立事务；
+        // 检查之后有并发写入同名用户时整批回滚，改为逐行插入，冲突的行记为失败
+        for (int from = 0; from < candidates.size(); from += IMPORT_CHUNK_SIZE) {
+            List<Integer> chunk = candidates.subList(from, Math.min(from + IMPORT_CHUNK_SIZE, candidates.size()));
+            try {
+                applyOutcomes(rows, transactionTemplate.execute(status -> importChunk(requests, chunk)));
+            } catch (DataIntegrityViolationException e) {
+                log.warn("批量导入批次与并发写入冲突，逐行重试: rows={}, error={}",
+                        chunk.size(), e.getMostSpecificCause().getMessage());
+                importRowByRow(requests, rows, chunk);
+            }
+        }
+        
+        int created = (int) rows.stream()
+                .filter(row -> row.getStatus() == UserImportResult.RowStatus.CREATED)
+                .count();
+        log.info("批量导入完成: total={}, created={}", rows.size(), created);
+        return new UserImportResult(rows.size(), created, rows.size() - created, rows);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UserResponse getUserById(Long id) {
         log.debug("根据ID获取用户: {}", id);
         
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("用户", "ID", id));
+        // 缓存命中时不开启事务，避免占用数据库连接
+        return userCache.getById(id, key -> {
+            User user = userRepository.findById(key)
+                    .orElseThrow(() -> new ResourceNotFoundException("用户", "ID", key));
+            return convertToResponse(user);
+        });
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public UserBatchResponse getUsersByIds(List<Long> ids) {
+        log.debug("批量获取用户: {} 个", ids.size());
         
-        return convertToResponse(user);
+        if (ids.size() > BATCH_MAX_IDS) {
+            throw new IllegalArgumentException("单次最多查询 " + BATCH_MAX_IDS + " 个用户");
+        }
+        
+        List<Long> distinctIds = ids.stream().filter(Objects::nonNull).distinct().toList();
+        
+        // 仅缓存未命中的ID访问数据库
+        Map<Long, UserResponse> found = userCache.getAll(distinctIds, misses ->
+                userRepository.findAllById(misses).stream().map(this::convertToResponse).toList());
+        
+        List<UserResponse> users = ids.stream()
+                .map(id -> id == null ? null : found.get(id))
+                .collect(Collectors.toList());
+        List<Long> missingIds = distinctIds.stream()
+                .filter(id -> !found.containsKey(id))
+                .collect(Collectors.toList());
+        return new UserBatchResponse(users, missingIds);
     }
 
     @Override
+    @Transactional(propagation = Propagation.SUPPORTS)
     public UserResponse getUserByUsername(String username) {
         log.debug("根据用户名获取用户: {}", username);
         
-        User user = userRepository.findByUsername(username)
-                .orElseThrow(() -> new ResourceNotFoundException("用户", "用户名", username));
-        
-        return convertToResponse(user);
+        return userCache.getByUsername(username, key -> {
+            User user = userRepository.findByUsername(key)
+                    .orElseThrow(() -> new ResourceNotFoundException("用户", "用户名", key));
+            return convertToResponse(user);
+        });
     }
 
     @Override
@@ -102,10 +291,13 @@ public class UserServiceImpl implements UserService {
             }
         }
         
+        UserStatsDelta before = UserStatsDelta.of(user);
         // 更新用户信息（忽略null值）
         BeanUtil.copyPropertiesIgnoreNull(request, user);
         
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(UserChangedEvent.Type.UPDATED, id,
+                UserStatsDelta.of(updatedUser).minus(before)));
         
         log.info("用户更新成功: {}", updatedUser.getId());
         return convertToResponse(updatedUser);
@@ -116,11 +308,12 @@ public class UserServiceImpl implements UserService {
     public void deleteUser(Long id) {
         log.info("删除用户: {}", id);
         
-        if (!userRepository.existsById(id)) {
-            throw new ResourceNotFoundException("用户", "ID", id);
-        }
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new ResourceNotFoundException("用户", "ID", id));
         
-        userRepository.deleteById(id);
+        userRepository.delete(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(UserChangedEvent.Type.DELETED, id,
+                UserStatsDelta.of(user).negate()));
         log.info("用户删除成功: {}", id);
     }
 
@@ -134,6 +327,34 @@ public class UserServiceImpl implements UserService {
                 .collect(Collectors.toList());
     }
 
+    @Override
+    public long exportUsers(OutputStream outputStream) throws IOException {
+        log.info("流式导出所有用户");
+        
+        // 关闭逐条flush，按批次刷新
+        ObjectWriter writer = objectMapper.writerFor(UserResponse.class)
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        long count = 0;
+        try (Stream<User> users = userRepository.streamAll();
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.setRootValueSeparator(null);
+            Iterator<User> iterator = users.iterator();
+            while (iterator.hasNext()) {
+                User user = iterator.next();
+                writer.writeValue(generator, convertToResponse(user));
+                generator.writeRaw('\n');
+                // 及时从持久化上下文中移除，保持内存占用平稳
+                entityManager.detach(user);
+                if (++count % EXPORT_FLUSH_ROWS == 0) {
+                    generator.flush();
+                }
+            }
+        }
+        
+        log.info("用户导出完成: {}", count);
+        return count;
+    }
+
     @Override
     public Page<UserResponse> getUsers(Pageable pageable) {
         log.debug("分页获取用户列表: page={}, size={}", pageable.getPageNumber(), pageable.getPageSize());
@@ -156,10 +377,62 @@ public class UserServiceImpl implements UserService {
         log.debug("搜索用户: keyword={}, page={}, size={}", 
                 keyword, pageable.getPageNumber(), pageable.getPageSize());
         
+        // 优先使用内存n-gram索引，索引无法处理时回退到LIKE查询
+        Optional<Page<Long>> idPage = userSearchIndex.search(keyword, pageable);
+        if (idPage.isPresent()) {
+            List<UserResponse> content = findAllInOrder(idPage.get().getContent()).stream()
+                    .map(this::convertToResponse)
+                    .collect(Collectors.toList());
+            return new PageImpl<>(content, pageable, idPage.get().getTotalElements());
+        }
+        
         Page<User> userPage = userRepository.findByKeyword(keyword, pageable);
         return userPage.map(this::convertToResponse);
     }
 
+    @Override
+    public CursorPageResponse<UserResponse> scrollUsers(Integer status, Sort.Order order, String cursor, int size) {
+        log.debug("游标分页获取用户列表: status={}, order={}, size={}", status, order, size);
+        
+        checkScrollSize(size);
+        if (!SCROLL_SORT_PROPERTIES.contains(order.getProperty())) {
+            throw new IllegalArgumentException("不支持的排序字段: " + order.getProperty());
+        }
+        
+        Comparable<?> lastValue = null;
+        Long lastId = null;
+        if (StringUtils.hasText(cursor)) {
+            List<String> parts = decodeCursor(cursor, order);
+            lastValue = parseSortValue(order.getProperty(), parts.get(2));
+            lastId = Long.valueOf(parts.get(3));
+        }
+        
+        // 多取一条用于判断是否存在下一页
+        List<User> users = userRepository.findByKeyset(status, null, order, lastValue, lastId, size + 1);
+        return toCursorPage(users, order, size);
+    }
+
+    @Override
+    public CursorPageResponse<UserResponse> scrollSearchUsers(String keyword, String cursor, int size) {
+        log.debug("游标分页搜索用户: keyword={}, size={}", keyword, size);
+        
+        checkScrollSize(size);
+        Sort.Order order = Sort.Order.desc("createdAt");
+        LocalDateTime lastCreatedAt = null;
+        Long lastId = null;
+        if (StringUtils.hasText(cursor)) {
+            List<String> parts = decodeCursor(cursor, order);
+            lastCreatedAt = (LocalDateTime) parseSortValue(order.getProperty(), parts.get(2));
+            lastId = Long.valueOf(parts.get(3));
+        }
+        
+        Optional<List<Long>> ids = userSearchIndex.searchAfter(keyword, order, lastCreatedAt, lastId, size + 1);
+        List<User> users = ids.isPresent()
+                ? findAllInOrder(ids.get())
+                : userRepository.findByKeyset(null, keyword, order, lastCreatedAt, lastId, size + 1);
+        return toCursorPage(users, order, size);
+    }
+
     @Override
     public boolean existsByUsername(String username) {
         return userRepository.existsByUsername(username);
@@ -178,8 +451,11 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("用户", "ID", id));
         
+        UserStatsDelta before = UserStatsDelta.of(user);
         user.setStatus(1);
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(UserChangedEvent.Type.UPDATED, id,
+                UserStatsDelta.of(updatedUser).minus(before)));
         
         log.info("用户启用成功: {}", id);
         return convertToResponse(updatedUser);
@@ -193,13 +469,278 @@ public class UserServiceImpl implements UserService {
         User user = userRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("用户", "ID", id));
         
+        UserStatsDelta before = UserStatsDelta.of(user);
         user.setStatus(0);
         User updatedUser = userRepository.save(user);
+        eventPublisher.publishEvent(UserChangedEvent.of(UserChangedEvent.Type.UPDATED, id,
+                UserStatsDelta.of(updatedUser).minus(before)));
         
         log.info("用户禁用成功: {}", id);
         return convertToResponse(updatedUser);
     }
 
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public UserBatchStatusResult batchUpdateStatus(UserBatchStatusRequest request) {
+        log.info("批量修改用户状态: status={}, ids={}, currentStatus={}, createdBefore={}", request.getStatus(),
+                request.getIds() == null ? 0 : request.getIds().size(), request.getCurrentStatus(), request.getCreatedBefore());
+        
+        Integer status = request.getStatus();
+        if (status == null || (status != 0 && status != 1)) {
+            throw new IllegalArgumentException("状态只能为0或1");
+        }
+        
+        int matched = 0;
+        int affected = 0;
+        if (request.getIds() != null && !request.getIds().isEmpty()) {
+            List<Long> ids = request.getIds().stream().filter(Objects::nonNull).distinct().toList();
+            if (ids.size() > STATUS_MAX_IDS) {
+                throw new IllegalArgumentException("单次最多修改 " + STATUS_MAX_IDS + " 个用户");
+            }
+            for (int from = 0; from < ids.size(); from += STATUS_CHUNK_SIZE) {
+                List<Long> chunk = ids.subList(from, Math.min(from + STATUS_CHUNK_SIZE, ids.size()));
+                matched += chunk.size();
+                affected += updateStatusChunk(chunk, status);
+            }
+        } else if (request.getCurrentStatus() != null) {
+            // 按条件分批选出ID再更新，便于失效对应缓存
+            LocalDateTime createdBefore = request.getCreatedBefore() != null
+                    ? request.getCreatedBefore() : LocalDateTime.now();
+            Pageable batch = PageRequest.of(0, STATUS_CHUNK_SIZE);
+            long lastId = 0L;
+            List<Long> chunk;
+            do {
+                chunk = userRepository.findIdsByStatusAndCreatedBefore(
+                        request.getCurrentStatus(), createdBefore, lastId, batch);
+                if (!chunk.isEmpty()) {
+                    lastId = chunk.get(chunk.size() - 1);
+                    matched += chunk.size();
+                    affected += updateStatusChunk(chunk, status);
+                }
+            } while (chunk.size() == STATUS_CHUNK_SIZE);
+        } else {
+            throw new IllegalArgumentException("请指定用户ID列表或过滤条件");
+        }
+        
+        log.info("批量修改用户状态完成: matched={}, affected={}", matched, affected);
+        return new UserBatchStatusResult(matched, affected);
+    }
+
+    /**
+     * 在独立事务中更新一批用户的状态，并发布变更事件
+     * 
+     * @param ids 用户ID
+     * @param status 目标状态
+     * @return 实际更新的行数
+     */
+    private int updateStatusChunk(List<Long> ids, Integer status) {
+        Integer updated = transactionTemplate.execute(tx -> {
+            // 只有状态不同的行会被更新，启用用户数随之增减
+            int count = userRepository.updateStatusByIds(ids, status, LocalDateTime.now());
+            long activeDelta = status == 1 ? count : -count;
+            eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.UPDATED, ids,
+                    new UserStatsDelta(0, activeDelta, 0, 0)));
+            return count;
+        });
+        return updated == null ? 0 : updated;
+    }
+
+    /**
+     * 单行导入结果，批次事务成功后才写回逐行结果
+     */
+    private record RowOutcome(UserImportResult.RowStatus status, String message, Long id) {
+    }
+
+    /**
+     * 导入一个批次：一次查询过滤已存在的用户名和邮箱，其余行JDBC批量插入
+     * 
+     * @param requests 全部请求
+     * @param chunk 本批次待导入的行号
+     * @return 行号 -> 导入结果
+     * @throws DataIntegrityViolationException 检查之后有并发写入相同的用户名或邮箱
+     */
+    private Map<Integer, RowOutcome> importChunk(List<UserCreateRequest> requests, List<Integer> chunk) {
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        chunk.forEach(i -> {
+            usernames.add(requests.get(i).getUsername());
+            emails.add(requests.get(i).getEmail());
+        });
+        
+        Set<String> existingUsernames = new HashSet<>();
+        Set<String> existingEmails = new HashSet<>();
+        for (Object[] existing : userRepository.findUsernamesAndEmails(usernames, emails)) {
+            existingUsernames.add(normalizeKey((String) existing[0]));
+            existingEmails.add(normalizeKey((String) existing[1]));
+        }
+        
+        Map<Integer, RowOutcome> outcomes = new HashMap<>();
+        List<Integer> inserts = new ArrayList<>();
+        for (Integer i : chunk) {
+            UserCreateRequest request = requests.get(i);
+            if (existingUsernames.contains(normalizeKey(request.getUsername()))) {
+                outcomes.put(i, new RowOutcome(UserImportResult.RowStatus.USERNAME_EXISTS, "用户名已存在", null));
+            } else if (existingEmails.contains(normalizeKey(request.getEmail()))) {
+                outcomes.put(i, new RowOutcome(UserImportResult.RowStatus.EMAIL_EXISTS, "邮箱已存在", null));
+            } else {
+                inserts.add(i);
+            }
+        }
+        if (inserts.isEmpty()) {
+            return outcomes;
+        }
+        
+        // IDENTITY主键无法使用Hibernate批量插入，这里直接使用JDBC批处理
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_USER_SQL, inserts, inserts.size(), (ps, i) -> {
+            UserCreateRequest request = requests.get(i);
+            ps.setString(1, request.getUsername());
+            ps.setString(2, request.getEmail());
+            ps.setString(3, PasswordUtil.encryptPassword(request.getPassword()));
+            ps.setString(4, request.getRealName());
+            ps.setString(5, request.getPhone());
+            ps.setInt(6, 1);
+            ps.setTimestamp(7, now);
+            ps.setTimestamp(8, now);
+        });
+        
+        // 回填生成的ID
+        Map<String, Long> ids = new HashMap<>();
+        List<String> insertedUsernames = inserts.stream().map(i -> requests.get(i).getUsername()).toList();
+        for (Object[] pair : userRepository.findIdsByUsernames(insertedUsernames)) {
+            ids.put((String) pair[0], (Long) pair[1]);
+        }
+        UserStatsDelta statsDelta = UserStatsDelta.NONE;
+        for (Integer i : inserts) {
+            UserCreateRequest request = requests.get(i);
+            outcomes.put(i, new RowOutcome(UserImportResult.RowStatus.CREATED, null, ids.get(request.getUsername())));
+            statsDelta = statsDelta.plus(UserStatsDelta.of(1, request.getRealName(), request.getPhone()));
+        }
+        eventPublisher.publishEvent(new UserChangedEvent(UserChangedEvent.Type.CREATED, ids.values(), statsDelta));
+        return outcomes;
+    }
+
+    /**
+     * 批次冲突后逐行导入，每行独立事务，仍然冲突的行记为失败
+     */
+    private void importRowByRow(List<UserCreateRequest> requests, List<UserImportResult.Row> rows, List<Integer> chunk) {
+        for (Integer i : chunk) {
+            try {
+                applyOutcomes(rows, transactionTemplate.execute(status -> importChunk(requests, List.of(i))));
+            } catch (DataIntegrityViolationException e) {
+                UserImportResult.Row row = rows.get(i);
+                row.setStatus(UserImportResult.RowStatus.FAILED);
+                row.setMessage("用户名或邮箱与并发写入的用户冲突");
+            }
+        }
+    }
+
+    private static void applyOutcomes(List<UserImportResult.Row> rows, Map<Integer, RowOutcome> outcomes) {
+        outcomes.forEach((i, outcome) -> {
+            UserImportResult.Row row = rows.get(i);
+            row.setStatus(outcome.status());
+            row.setMessage(outcome.message());
+            row.setId(outcome.id());
+        });
+    }
+
+    /**
+     * 返回第一条校验失败信息，校验通过时返回null
+     */
+    private String firstViolation(UserCreateRequest request) {
+        Set<ConstraintViolation<UserCreateRequest>> violations = validator.validate(request);
+        return violations.isEmpty() ? null : violations.iterator().next().getMessage();
+    }
+
+    /**
+     * 用户名和邮箱按不区分大小写比较，与数据库排序规则保持一致
+     */
+    private static String normalizeKey(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 按给定ID顺序批量加载用户，不存在的ID被忽略
+     * 
+     * @param ids 用户ID列表
+     * @return 用户列表
+     */
+    private List<User> findAllInOrder(List<Long> ids) {
+        Map<Long, User> users = userRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        return ids.stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 构造游标分页结果，多取的一条仅用于判断是否存在下一页
+     * 
+     * @param users 查询结果（最多 size + 1 条）
+     * @param order 排序字段及方向
+     * @param size 每页大小
+     * @return 游标分页结果
+     */
+    private CursorPageResponse<UserResponse> toCursorPage(List<User> users, Sort.Order order, int size) {
+        boolean hasNext = users.size() > size;
+        List<User> content = hasNext ? users.subList(0, size) : users;
+        String nextCursor = null;
+        if (hasNext) {
+            User last = content.get(content.size() - 1);
+            nextCursor = CursorUtil.encode(order.getProperty(), order.getDirection().name(),
+                    String.valueOf(sortValue(last, order.getProperty())), String.valueOf(last.getId()));
+        }
+        return CursorPageResponse.of(
+                content.stream().map(this::convertToResponse).collect(Collectors.toList()),
+                size,
+                nextCursor);
+    }
+
+    /**
+     * 校验游标分页的每页大小，避免一次读取整张表
+     */
+    private static void checkScrollSize(int size) {
+        if (size < 1 || size > SCROLL_MAX_SIZE) {
+            throw new IllegalArgumentException("每页大小必须在 1 到 " + SCROLL_MAX_SIZE + " 之间");
+        }
+    }
+
+    /**
+     * 解码游标并校验与当前排序参数一致
+     * 
+     * @param cursor 游标
+     * @param order 排序字段及方向
+     * @return 游标组成部分：排序字段、方向、排序值、ID
+     */
+    private List<String> decodeCursor(String cursor, Sort.Order order) {
+        List<String> parts = CursorUtil.decode(cursor, 4);
+        if (!order.getProperty().equals(parts.get(0)) || !order.getDirection().name().equals(parts.get(1))) {
+            throw new IllegalArgumentException("分页游标与排序参数不匹配");
+        }
+        return parts;
+    }
+
+    private Comparable<?> sortValue(User user, String property) {
+        return switch (property) {
+            case "createdAt" -> user.getCreatedAt();
+            case "username" -> user.getUsername();
+            default -> user.getId();
+        };
+    }
+
+    private Comparable<?> parseSortValue(String property, String value) {
+        try {
+            return switch (property) {
+                case "createdAt" -> LocalDateTime.parse(value);
+                case "username" -> value;
+                default -> Long.valueOf(value);
+            };
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("无效的分页游标", e);
+        }
+    }
+
     /**
      * 将User实体转换为UserResponse
      * 
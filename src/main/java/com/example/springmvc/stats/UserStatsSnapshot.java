@@ -0,0 +1,207 @@
+package com.example.springmvc.stats;
+
+import com.example.springmvc.config.UserStatsProperties;
+import com.example.springmvc.event.UserChangedEvent;
+import com.example.springmvc.event.UserStatsDelta;
+import com.example.springmvc.repository.UserRepository;
+import com.example.springmvc.repository.UserStatsView;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 用户统计快照
+ *
+ * 统计值由一条聚合SQL计算，读取时直接返回内存中的快照；
+ * 本节点的用户变更（含批量导入、批量改状态）按 {@link UserChangedEvent} 携带的
+ * {@link UserStatsDelta} 增量更新，不携带增量的变更触发后台重新聚合
+ * （同一刷新窗口内的多次变更合并为一次聚合查询）；
+ * 另按固定间隔全量重新聚合，校正其他节点的变更和增量更新的累计误差
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@Slf4j
+@Component
+public class UserStatsSnapshot {
+
+    /**
+     * 变更后延迟刷新的时间窗口
+     */
+    private static final long REFRESH_DELAY_MILLIS = 200;
+
+    private final UserRepository userRepository;
+    private final UserStatsProperties properties;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    /**
+     * 串行化全量聚合，聚合查询期间不阻塞增量更新
+     */
+    private final Object reconcileLock = new Object();
+
+    private volatile Stats stats;
+
+    /**
+     * 全量聚合进行期间应用的增量，聚合完成后重放到聚合结果上；未在聚合时为null
+     */
+    private UserStatsDelta appliedDuringRefresh;
+
+    public UserStatsSnapshot(UserRepository userRepository, UserStatsProperties properties) {
+        this.userRepository = userRepository;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "user-stats-refresh");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 用户统计值
+     *
+     * @param totalUsers 用户总数
+     * @param activeUsers 启用用户数
+     * @param usersWithRealName 填写真实姓名的用户数
+     * @param usersWithPhone 填写手机号的用户数
+     * @param refreshedAt 统计时间
+     */
+    public record Stats(long totalUsers, long activeUsers, long usersWithRealName,
+                        long usersWithPhone, LocalDateTime refreshedAt) {
+
+        public long inactiveUsers() {
+            return totalUsers - activeUsers;
+        }
+
+        Stats plus(UserStatsDelta delta, LocalDateTime at) {
+            return new Stats(totalUsers + delta.totalUsers(), activeUsers + delta.activeUsers(),
+                    usersWithRealName + delta.usersWithRealName(), usersWithPhone + delta.usersWithPhone(), at);
+        }
+    }
+
+    /**
+     * 获取当前统计快照，尚未计算时同步计算一次
+     *
+     * @return 统计快照
+     */
+    public Stats current() {
+        Stats current = stats;
+        return current != null ? current : refresh();
+    }
+
+    /**
+     * 重新计算统计快照
+     *
+     * 聚合查询期间提交的变更大多不在查询结果中，其增量在查询完成后重放到结果上
+     *
+     * @return 最新统计快照
+     */
+    public Stats refresh() {
+        synchronized (reconcileLock) {
+            synchronized (this) {
+                appliedDuringRefresh = UserStatsDelta.NONE;
+            }
+            UserStatsView view;
+            try {
+                view = userRepository.aggregateStats();
+            } catch (RuntimeException e) {
+                synchronized (this) {
+                    appliedDuringRefresh = null;
+                }
+                throw e;
+            }
+            synchronized (this) {
+                LocalDateTime now = LocalDateTime.now();
+                Stats refreshed = new Stats(
+                        view.getTotalUsers(),
+                        view.getActiveUsers(),
+                        view.getUsersWithRealName(),
+                        view.getUsersWithPhone(),
+                        now).plus(appliedDuringRefresh, now);
+                appliedDuringRefresh = null;
+                Stats previous = stats;
+                if (previous != null && !sameCounts(previous, refreshed)) {
+                    log.debug("用户统计快照已校正: {} -> {}", previous, refreshed);
+                }
+                stats = refreshed;
+                log.debug("用户统计快照已刷新: {}", refreshed);
+                return refreshed;
+            }
+        }
+    }
+
+    /**
+     * 应用启动完成后计算初始快照，并开始定期全量聚合
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        refreshQuietly();
+        long interval = properties.getReconcileInterval().toMillis();
+        scheduler.scheduleAtFixedRate(this::refreshQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 用户变更事务提交后增量更新，变更未携带增量时安排刷新
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onUserChanged(UserChangedEvent event) {
+        UserStatsDelta delta = event.getStatsDelta();
+        if (delta != null) {
+            apply(delta);
+        } else {
+            scheduleRefresh();
+        }
+    }
+
+    private synchronized void apply(UserStatsDelta delta) {
+        if (delta.isEmpty()) {
+            return;
+        }
+        if (appliedDuringRefresh != null) {
+            appliedDuringRefresh = appliedDuringRefresh.plus(delta);
+        }
+        // 尚未完成首次聚合时由首次聚合得到
+        Stats current = stats;
+        if (current != null) {
+            stats = current.plus(delta, LocalDateTime.now());
+        }
+    }
+
+    private void scheduleRefresh() {
+        if (refreshScheduled.compareAndSet(false, true)) {
+            scheduler.schedule(() -> {
+                // 先清除标记，刷新期间到达的变更会再安排一次刷新
+                refreshScheduled.set(false);
+                refreshQuietly();
+            }, REFRESH_DELAY_MILLIS, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    private static boolean sameCounts(Stats a, Stats b) {
+        return a.totalUsers() == b.totalUsers() && a.activeUsers() == b.activeUsers()
+                && a.usersWithRealName() == b.usersWithRealName() && a.usersWithPhone() == b.usersWithPhone();
+    }
+
+    private void refreshQuietly() {
+        try {
+            refresh();
+        } catch (Exception e) {
+            log.warn("刷新用户统计快照失败: {}", e.getMessage());
+        }
+    }
+
+}
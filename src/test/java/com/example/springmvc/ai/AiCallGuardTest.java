@@ -0,0 +1,190 @@
+package com.example.springmvc.ai;
+
+import com.example.springmvc.common.exception.BusinessException;
+import com.example.springmvc.common.exception.ServiceUnavailableException;
+import com.example.springmvc.config.AiResilienceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.hc.core5.http.ConnectionRequestTimeoutException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.ResourceAccessException;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * AiCallGuard 单元测试
+ *
+ * @author example
+ * @version 1.0.0
+ */
+class AiCallGuardTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void releasesPermitWhenCallThrows() {
+        AiCallGuard guard = new AiCallGuard(properties(), meterRegistry);
+
+        assertThatThrownBy(() -> guard.execute(() -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> guard.execute(() -> {
+            throw HttpClientErrorException.create(HttpStatus.BAD_REQUEST, "bad request", null, null, null);
+        })).isInstanceOf(BusinessException.class);
+
+        // 并发上限为1，许可未归还时这里会被拒绝
+        assertThat(guard.execute(() -> "ok")).isEqualTo("ok");
+        assertThat(activeCalls()).isZero();
+    }
+
+    @Test
+    void rejectsWhenBulkheadIsFull() throws Exception {
+        AiCallGuard guard = new AiCallGuard(properties(), meterRegistry);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Future<String> running = executor.submit(() -> guard.execute(() -> {
+            started.countDown();
+            await(release);
+            return "first";
+        }));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        assertThatThrownBy(() -> guard.execute(() -> "second"))
+                .isInstanceOf(ServiceUnavailableException.class);
+
+        release.countDown();
+        assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("first");
+        assertThat(guard.execute(() -> "third")).isEqualTo("third");
+    }
+
+    @Test
+    void retriesServerErrorsAndConnectFailures() {
+        AiCallGuard guard = new AiCallGuard(properties(), meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        String result = guard.execute(() -> switch (attempts.incrementAndGet()) {
+            case 1 -> throw new HttpServerErrorException(HttpStatus.SERVICE_UNAVAILABLE);
+            case 2 -> throw new ResourceAccessException("connect", new ConnectException("refused"));
+            default -> "ok";
+        });
+
+        assertThat(result).isEqualTo("ok");
+        assertThat(attempts).hasValue(3);
+    }
+
+    @Test
+    void doesNotRetryReadTimeouts() {
+        AiCallGuard guard = new AiCallGuard(properties(), meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> guard.execute(() -> {
+            attempts.incrementAndGet();
+            throw new ResourceAccessException("read", new SocketTimeoutException("Read timed out"));
+        })).isInstanceOfSatisfying(BusinessException.class, e -> assertThat(e.getCode()).isEqualTo(502));
+
+        assertThat(attempts).hasValue(1);
+    }
+
+    @Test
+    void stopsRetryingWhenBudgetIsExhausted() {
+        AiResilienceProperties properties = properties();
+        properties.getRetry().setMaxAttempts(10);
+        // 无按请求存入和保底补充，只有初始的1个令牌
+        properties.getRetry().setBudgetRatio(0);
+        properties.getRetry().setMinRetriesPerSecond(0);
+        AiCallGuard guard = new AiCallGuard(properties, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        assertThatThrownBy(() -> guard.execute(() -> {
+            attempts.incrementAndGet();
+            throw new HttpServerErrorException(HttpStatus.BAD_GATEWAY);
+        })).isInstanceOf(BusinessException.class);
+
+        assertThat(attempts).hasValue(2);
+        assertThat(meterRegistry.get("ai.chat.retries").tag("result", "budget_exhausted").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    void poolTimeoutIsALocalRejection() {
+        AiCallGuard guard = new AiCallGuard(properties(), meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(() -> guard.execute(() -> {
+                attempts.incrementAndGet();
+                throw new ResourceAccessException("pool", new ConnectionRequestTimeoutException("timeout"));
+            })).isInstanceOf(ServiceUnavailableException.class);
+        }
+
+        // 不重试，也不计入熔断统计
+        assertThat(attempts).hasValue(5);
+        assertThat(guard.execute(() -> "ok")).isEqualTo("ok");
+    }
+
+    @Test
+    void opensCircuitAfterUpstreamFailures() {
+        AiResilienceProperties properties = properties();
+        properties.getRetry().setMaxAttempts(1);
+        AiCallGuard guard = new AiCallGuard(properties, meterRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+
+        for (int i = 0; i < 4; i++) {
+            assertThatThrownBy(() -> guard.execute(() -> {
+                attempts.incrementAndGet();
+                throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR);
+            })).isInstanceOf(BusinessException.class);
+        }
+
+        assertThatThrownBy(() -> guard.execute(() -> {
+            attempts.incrementAndGet();
+            return "ok";
+        })).isInstanceOf(ServiceUnavailableException.class);
+        assertThat(attempts).hasValue(4);
+    }
+
+    private double activeCalls() {
+        return meterRegistry.get("ai.chat.active").gauge().value();
+    }
+
+    private static AiResilienceProperties properties() {
+        AiResilienceProperties properties = new AiResilienceProperties();
+        properties.getBulkhead().setMaxConcurrentCalls(1);
+        properties.getBulkhead().setMaxWait(Duration.ZERO);
+        properties.getRetry().setInitialBackoff(Duration.ofMillis(1));
+        properties.getRetry().setMaxBackoff(Duration.ofMillis(5));
+        properties.getCircuitBreaker().setWindowSize(4);
+        properties.getCircuitBreaker().setMinimumCalls(4);
+        return properties;
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,128 @@
+package com.example.springmvc.ai;
+
+import com.example.springmvc.config.AiResilienceProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * CircuitBreaker 单元测试
+ *
+ * @author example
+ * @version 1.0.0
+ */
+class CircuitBreakerTest {
+
+    private static final Duration OPEN_DURATION = Duration.ofMillis(100);
+
+    private final CircuitBreaker breaker = new CircuitBreaker(config());
+
+    @Test
+    void staysClosedBelowMinimumCalls() {
+        fail(3);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void opensWhenFailureRateReachesThreshold() {
+        succeed(2);
+        fail(2);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.remainingOpenMillis()).isPositive();
+    }
+
+    @Test
+    void oldResultsLeaveTheWindow() {
+        fail(1);
+        // 窗口大小为4，之后的成功把最早的失败挤出窗口
+        succeed(4);
+        fail(1);
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void movesFromOpenToHalfOpenToClosed() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+
+        // 只放行 halfOpenCalls 个试探请求
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        breaker.onSuccess();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        // 恢复后重新开始统计，之前的失败不再计入
+        fail(1);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void reopensWhenProbeFails() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onFailure();
+
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void ignoredProbeReturnsItsSlot() throws InterruptedException {
+        open();
+        Thread.sleep(OPEN_DURATION.toMillis() + 50);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isFalse();
+
+        breaker.onIgnored();
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+    }
+
+    private void open() {
+        fail(4);
+        assertThat(breaker.state()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    private void succeed(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onSuccess();
+        }
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+    }
+
+    private static AiResilienceProperties.CircuitBreaker config() {
+        AiResilienceProperties.CircuitBreaker config = new AiResilienceProperties.CircuitBreaker();
+        config.setWindowSize(4);
+        config.setMinimumCalls(4);
+        config.setFailureRateThreshold(50);
+        config.setOpenDuration(OPEN_DURATION);
+        config.setHalfOpenCalls(2);
+        return config;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.example.springmvc.ai;
+
+import com.example.springmvc.config.AiResilienceProperties;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * RetryBudget 单元测试
+ *
+ * @author example
+ * @version 1.0.0
+ */
+class RetryBudgetTest {
+
+    @Test
+    void exhaustsAndRefillsFromRequests() {
+        RetryBudget budget = new RetryBudget(config(0.5, 0));
+
+        // 无保底速率时容量为1，初始满额
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isFalse();
+
+        budget.onRequest();
+        assertThat(budget.tryRetry()).isFalse();
+        budget.onRequest();
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isFalse();
+    }
+
+    @Test
+    void requestsDoNotAccumulateBeyondCapacity() {
+        RetryBudget budget = new RetryBudget(config(0.5, 0));
+
+        for (int i = 0; i < 100; i++) {
+            budget.onRequest();
+        }
+
+        assertThat(budget.tryRetry()).isTrue();
+        assertThat(budget.tryRetry()).isFalse();
+    }
+
+    @Test
+    void refillsAtMinimumRateOverTime() throws InterruptedException {
+        // 保底每秒10次，容量为10秒的保底量
+        RetryBudget budget = new RetryBudget(config(0, 10));
+        int granted = 0;
+        while (budget.tryRetry()) {
+            granted++;
+        }
+        assertThat(granted).isEqualTo(100);
+
+        Thread.sleep(250);
+
+        assertThat(budget.tryRetry()).isTrue();
+    }
+
+    private static AiResilienceProperties.Retry config(double ratio, double minPerSecond) {
+        AiResilienceProperties.Retry config = new AiResilienceProperties.Retry();
+        config.setBudgetRatio(ratio);
+        config.setMinRetriesPerSecond(minPerSecond);
+        return config;
+    }
+
+}
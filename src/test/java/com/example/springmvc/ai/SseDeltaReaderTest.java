@@ -0,0 +1,182 @@
+package com.example.springmvc.ai;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * SseDeltaReader 单元测试
+ *
+ * @author example
+ * @version 1.0.0
+ */
+class SseDeltaReaderTest {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    @Test
+    void readsContentAndReasoningDeltas() throws IOException {
+        String sse = """
+                data: {"choices":[{"delta":{"reasoning_content":"思考"}}]}
+
+                data: {"choices":[{"delta":{"content":"Hello","reasoning_content":null}}]}
+
+                data: [DONE]
+
+                """;
+
+        try (SseDeltaReader reader = reader(bytes(sse), Integer.MAX_VALUE)) {
+            assertThat(reader.next()).isEqualTo(new ChatDelta("", "思考"));
+            assertThat(reader.next()).isEqualTo(new ChatDelta("Hello", ""));
+            assertThat(reader.next()).isNull();
+        }
+    }
+
+    @Test
+    void joinsLinesSplitAcrossReads() throws IOException {
+        String sse = "data: {\"choices\":[{\"delta\":{\"content\":\"abc\"}}]}\n\n"
+                + "data: {\"choices\":[{\"delta\":{\"content\":\"def\"}}]}\n\n"
+                + "data: [DONE]\n\n";
+
+        // 每次只返回3个字节，行被切分到多次读取中
+        try (SseDeltaReader reader = reader(bytes(sse), 3)) {
+            assertThat(tokens(reader)).containsExactly("abc", "def");
+        }
+    }
+
+    @Test
+    void readsLinesLongerThanInitialBuffer() throws IOException {
+        String content = "x".repeat(20 * 1024);
+        String sse = "data: {\"choices\":[{\"delta\":{\"content\":\"" + content + "\"}}]}\n\ndata: [DONE]\n";
+
+        try (SseDeltaReader reader = reader(bytes(sse), 1000)) {
+            assertThat(tokens(reader)).containsExactly(content);
+        }
+    }
+
+    @Test
+    void acceptsCrlfLineEndings() throws IOException {
+        String sse = "data: {\"choices\":[{\"delta\":{\"content\":\"a\"}}]}\r\n\r\n"
+                + "data:{\"choices\":[{\"delta\":{\"content\":\"b\"}}]}\r\n\r\n"
+                + "data: [DONE]\r\n\r\n";
+
+        try (SseDeltaReader reader = reader(bytes(sse), 5)) {
+            assertThat(tokens(reader)).containsExactly("a", "b");
+        }
+    }
+
+    @Test
+    void stopsAtDoneAndIgnoresTrailingData() throws IOException {
+        String sse = "data: {\"choices\":[{\"delta\":{\"content\":\"a\"}}]}\n\n"
+                + "data: [DONE]\n\n"
+                + "data: {\"choices\":[{\"delta\":{\"content\":\"ignored\"}}]}\n\n";
+
+        try (SseDeltaReader reader = reader(bytes(sse), Integer.MAX_VALUE)) {
+            assertThat(tokens(reader)).containsExactly("a");
+        }
+    }
+
+    @Test
+    void decodesMultibyteCharactersSplitAcrossReads() throws IOException {
+        String sse = "data: {\"choices\":[{\"delta\":{\"content\":\"你好，世界😀\"}}]}\n\ndata: [DONE]\n";
+
+        // 每次读取1个字节，多字节字符必然被切开
+        try (SseDeltaReader reader = reader(bytes(sse), 1)) {
+            assertThat(tokens(reader)).containsExactly("你好，世界😀");
+        }
+    }
+
+    @Test
+    void readsUsageFromFinalChunk() throws IOException {
+        String sse = "data: {\"choices\":[{\"delta\":{\"content\":\"hi\"}}],\"usage\":null}\n\n"
+                + "data: {\"choices\":[],\"usage\":{\"prompt_tokens\":12,\"completion_tokens\":34,\"total_tokens\":46}}\n\n"
+                + "data: [DONE]\n\n";
+
+        try (SseDeltaReader reader = reader(bytes(sse), 7)) {
+            assertThat(tokens(reader)).containsExactly("hi");
+            assertThat(reader.usage()).isEqualTo(new TokenUsage(12, 34, 46));
+        }
+    }
+
+    @Test
+    void ignoresNestedFieldsNamedLikeDeltaOrUsage() throws IOException {
+        String sse = "data: {\"choices\":[{\"delta\":{\"content\":\"a\"}},{\"delta\":{\"content\":\"second\"}}],"
+                + "\"meta\":{\"usage\":{\"total_tokens\":1},\"delta\":{\"content\":\"meta\"}}}\n\n";
+
+        try (SseDeltaReader reader = reader(bytes(sse), Integer.MAX_VALUE)) {
+            assertThat(tokens(reader)).containsExactly("a");
+            assertThat(reader.usage()).isNull();
+        }
+    }
+
+    @Test
+    void skipsCommentsEventLinesAndEmptyDeltas() throws IOException {
+        String sse = ": keep-alive\n"
+                + "event: message\n"
+                + "data: {\"choices\":[{\"delta\":{\"role\":\"assistant\",\"content\":\"\"}}]}\n\n"
+                + "data: {\"choices\":[{\"delta\":{\"content\":\"a\"}}]}\n\n";
+
+        try (SseDeltaReader reader = reader(bytes(sse), Integer.MAX_VALUE)) {
+            assertThat(tokens(reader)).containsExactly("a");
+        }
+    }
+
+    @Test
+    void readsLastLineWithoutTrailingNewline() throws IOException {
+        String sse = "data: {\"choices\":[{\"delta\":{\"content\":\"a\"}}]}";
+
+        try (SseDeltaReader reader = reader(bytes(sse), 4)) {
+            assertThat(tokens(reader)).containsExactly("a");
+        }
+    }
+
+    private static List<String> tokens(SseDeltaReader reader) throws IOException {
+        List<String> tokens = new ArrayList<>();
+        ChatDelta delta;
+        while ((delta = reader.next()) != null) {
+            tokens.add(delta.token());
+        }
+        return tokens;
+    }
+
+    private static byte[] bytes(String value) {
+        return value.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static SseDeltaReader reader(byte[] data, int maxReadSize) throws IOException {
+        return new SseDeltaReader(new ChunkedInputStream(data, maxReadSize), JSON_FACTORY);
+    }
+
+    /**
+     * 每次最多返回 maxReadSize 个字节，模拟网络分片到达
+     */
+    private static final class ChunkedInputStream extends InputStream {
+
+        private final ByteArrayInputStream delegate;
+        private final int maxReadSize;
+
+        ChunkedInputStream(byte[] data, int maxReadSize) {
+            this.delegate = new ByteArrayInputStream(data);
+            this.maxReadSize = maxReadSize;
+        }
+
+        @Override
+        public int read() {
+            return delegate.read();
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            return delegate.read(b, off, Math.min(len, maxReadSize));
+        }
+    }
+
+}
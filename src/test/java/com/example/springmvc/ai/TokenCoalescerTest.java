@@ -0,0 +1,182 @@
+package com.example.springmvc.ai;
+
+import com.example.springmvc.config.AiStreamProperties;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+import reactor.test.publisher.TestPublisher;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TokenCoalescer 单元测试
+ *
+ * @author example
+ * @version 1.0.0
+ */
+class TokenCoalescerTest {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(5);
+
+    /**
+     * 足够长的合并窗口，确保测试期间定时器不会触发
+     */
+    private static final Duration NEVER = Duration.ofMinutes(1);
+
+    @Test
+    void returnsSourceWhenIntervalIsZero() {
+        Flux<String> tokens = Flux.just("a", "b");
+
+        assertThat(coalescer(Duration.ZERO, 1024).coalesce(tokens)).isSameAs(tokens);
+    }
+
+    @Test
+    void emitsFirstTokenImmediatelyAndFlushesBySize() {
+        TestPublisher<String> upstream = TestPublisher.create();
+
+        StepVerifier.create(coalescer(NEVER, 4).coalesce(upstream.flux()))
+                .then(() -> upstream.next("a"))
+                .expectNext("a")
+                .then(() -> upstream.next("bc", "de"))
+                .expectNext("bcde")
+                .then(() -> upstream.next("f"))
+                .then(upstream::complete)
+                .expectNext("f")
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void countsUtf8BytesTowardsFlushSize() {
+        TestPublisher<String> upstream = TestPublisher.create();
+
+        // "你" 为3字节，"好" 之后满6字节
+        StepVerifier.create(coalescer(NEVER, 6).coalesce(upstream.flux()))
+                .then(() -> upstream.next("a"))
+                .expectNext("a")
+                .then(() -> upstream.next("你", "好"))
+                .expectNext("你好")
+                .then(upstream::complete)
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void flushesByTimer() {
+        TestPublisher<String> upstream = TestPublisher.create();
+
+        StepVerifier.create(coalescer(Duration.ofMillis(50), 1024).coalesce(upstream.flux()))
+                .then(() -> upstream.next("a"))
+                .expectNext("a")
+                .then(() -> upstream.next("b", "c"))
+                .expectNext("bc")
+                .then(() -> upstream.next("d"))
+                .expectNext("d")
+                .then(upstream::complete)
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void timerStartsAgainAfterSizeFlush() {
+        TestPublisher<String> upstream = TestPublisher.create();
+
+        StepVerifier.create(coalescer(Duration.ofMillis(100), 3).coalesce(upstream.flux()))
+                .then(() -> upstream.next("a"))
+                .expectNext("a")
+                // "b" 启动定时器，"cd" 使批次按大小下发并撤销定时器
+                .then(() -> upstream.next("b", "cd"))
+                .expectNext("bcd")
+                // 新批次由新的定时器下发，不会被撤销的定时器提前或遗漏
+                .then(() -> upstream.next("e"))
+                .expectNoEvent(Duration.ofMillis(30))
+                .expectNext("e")
+                .then(upstream::complete)
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void holdsBatchAndPausesUpstreamWithoutDemand() {
+        TestPublisher<String> upstream = TestPublisher.create();
+
+        StepVerifier.create(coalescer(NEVER, 2).coalesce(upstream.flux()), 0)
+                .then(() -> upstream.next("a"))
+                .then(() -> upstream.next("b"))
+                // 缓冲已满且下游没有需求，不再向上游请求
+                .then(() -> upstream.assertMaxRequested(0))
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(1)
+                .expectNext("ab")
+                .then(() -> upstream.assertMinRequested(1))
+                .then(() -> upstream.next("c"))
+                .then(upstream::complete)
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(1)
+                .expectNext("c")
+                .expectComplete()
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void cancelStopsUpstream() {
+        TestPublisher<String> upstream = TestPublisher.create();
+
+        StepVerifier.create(coalescer(Duration.ofMillis(50), 1024).coalesce(upstream.flux()))
+                .then(() -> upstream.next("a"))
+                .expectNext("a")
+                .then(() -> upstream.next("b"))
+                .thenCancel()
+                .verify(TIMEOUT);
+
+        upstream.assertCancelled();
+    }
+
+    @Test
+    void flushesBufferedTokensBeforeError() {
+        TestPublisher<String> upstream = TestPublisher.create();
+        IllegalStateException failure = new IllegalStateException("upstream failed");
+
+        StepVerifier.create(coalescer(NEVER, 1024).coalesce(upstream.flux()))
+                .then(() -> upstream.next("a"))
+                .expectNext("a")
+                .then(() -> upstream.next("b"))
+                .then(() -> upstream.error(failure))
+                .expectNext("b")
+                .expectErrorSatisfies(error -> assertThat(error).isSameAs(failure))
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void deliversErrorAfterBufferedTokensAreRequested() {
+        TestPublisher<String> upstream = TestPublisher.create();
+
+        StepVerifier.create(coalescer(NEVER, 1024).coalesce(upstream.flux()), 1)
+                .then(() -> upstream.next("a", "b"))
+                .expectNext("a")
+                .then(() -> upstream.error(new IllegalStateException("upstream failed")))
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenRequest(1)
+                .expectNext("b")
+                .expectError(IllegalStateException.class)
+                .verify(TIMEOUT);
+    }
+
+    @Test
+    void utf8LengthMatchesEncodedSize() {
+        assertThat(TokenCoalescer.utf8Length("abc")).isEqualTo(3);
+        assertThat(TokenCoalescer.utf8Length("é")).isEqualTo(2);
+        assertThat(TokenCoalescer.utf8Length("你好")).isEqualTo(6);
+        assertThat(TokenCoalescer.utf8Length("😀")).isEqualTo(4);
+    }
+
+    private static TokenCoalescer coalescer(Duration flushInterval, int flushBytes) {
+        AiStreamProperties properties = new AiStreamProperties();
+        properties.setFlushInterval(flushInterval);
+        properties.setFlushBytes(flushBytes);
+        return new TokenCoalescer(properties);
+    }
+
+}
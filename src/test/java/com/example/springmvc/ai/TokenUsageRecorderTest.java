@@ -0,0 +1,45 @@
+package com.example.springmvc.ai;
+
+import com.example.springmvc.config.AiRateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * TokenUsageRecorder 单元测试
+ *
+ * @author example
+ * @version 1.0.0
+ */
+class TokenUsageRecorderTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final TokenUsageRecorder recorder = new TokenUsageRecorder(new AiRateLimitProperties(), meterRegistry);
+
+    @Test
+    void accumulatesUsagePerClientAndPerModel() {
+        recorder.record("client-a", "model-x", new TokenUsage(10, 20, 30));
+        recorder.record("client-a", "model-y", new TokenUsage(1, 2, 3));
+        recorder.record("client-b", "model-x", new TokenUsage(5, 5, 10));
+
+        assertThat(recorder.clientUsage("client-a")).isEqualTo(new TokenUsageRecorder.Usage(2, 11, 22));
+        assertThat(recorder.clientUsage("client-b")).isEqualTo(new TokenUsageRecorder.Usage(1, 5, 5));
+        assertThat(recorder.modelUsage("model-x")).isEqualTo(new TokenUsageRecorder.Usage(2, 15, 25));
+        assertThat(recorder.clientUsage("unknown")).isEqualTo(TokenUsageRecorder.Usage.NONE);
+    }
+
+    @Test
+    void exportsModelMetricsWithoutClientTag() {
+        recorder.record("client-a", "model-x", new TokenUsage(10, 20, 30));
+
+        assertThat(meterRegistry.get("ai.chat.tokens").tag("model", "model-x").tag("type", "prompt")
+                .functionCounter().count()).isEqualTo(10);
+        assertThat(meterRegistry.get("ai.chat.upstream.requests").tag("model", "model-x")
+                .functionCounter().count()).isEqualTo(1);
+        assertThat(meterRegistry.getMeters())
+                .allSatisfy(meter -> assertThat(meter.getId().getTag("client")).isNull());
+    }
+
+}
@@ -0,0 +1,110 @@
+package com.example.springmvc.cache;
+
+import com.example.springmvc.config.AiResponseCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatGenerationMetadata;
+import org.springframework.ai.chat.model.Generation;
+import org.springframework.ai.chat.prompt.ChatOptions;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * ChatResponseCache 单元测试
+ *
+ * @author example
+ * @version 1.0.0
+ */
+class ChatResponseCacheTest {
+
+    private static final ChatOptions DETERMINISTIC = ChatOptions.builder()
+            .model("model-x")
+            .temperature(0.0)
+            .maxTokens(100)
+            .build();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @SuppressWarnings("unchecked")
+    private final ChatResponseCache cache = new ChatResponseCache(new AiResponseCacheProperties(),
+            mock(ObjectProvider.class), new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void cacheHitsReportStop() {
+        cache.get("hello", DETERMINISTIC, () -> { }, () -> generation("hi", "stop"));
+
+        ChatResponseCache.Reply reply = cache.get("  hello ", DETERMINISTIC, () -> { }, () -> {
+            throw new AssertionError("命中缓存时不应调用上游");
+        });
+
+        assertThat(reply).isEqualTo(new ChatResponseCache.Reply("hi", "stop"));
+    }
+
+    @Test
+    void truncatedRepliesAreNotCached() {
+        AtomicInteger calls = new AtomicInteger();
+
+        ChatResponseCache.Reply first = cache.get("hello", DETERMINISTIC, () -> { },
+                () -> generation("hi" + calls.incrementAndGet(), "length"));
+        ChatResponseCache.Reply second = cache.get("hello", DETERMINISTIC, () -> { },
+                () -> generation("hi" + calls.incrementAndGet(), "length"));
+
+        assertThat(first).isEqualTo(new ChatResponseCache.Reply("hi1", "length"));
+        assertThat(second).isEqualTo(new ChatResponseCache.Reply("hi2", "length"));
+    }
+
+    @Test
+    void coalescedCallersSeeLeaderFinishReason() throws Exception {
+        CountDownLatch leaderStarted = new CountDownLatch(1);
+        CountDownLatch releaseLeader = new CountDownLatch(1);
+
+        Future<ChatResponseCache.Reply> leader = executor.submit(() ->
+                cache.get("hello", DETERMINISTIC, () -> { }, () -> {
+                    leaderStarted.countDown();
+                    await(releaseLeader);
+                    return generation("cut off", "length");
+                }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Future<ChatResponseCache.Reply> follower = executor.submit(() ->
+                cache.get("hello", DETERMINISTIC, () -> { }, () -> {
+                    throw new AssertionError("合并的请求不应调用上游");
+                }));
+        // 等待follower进入等待后再放行leader
+        Thread.sleep(100);
+        releaseLeader.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo(new ChatResponseCache.Reply("cut off", "length"));
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo(new ChatResponseCache.Reply("cut off", "length"));
+    }
+
+    private static Generation generation(String text, String finishReason) {
+        return new Generation(new AssistantMessage(text),
+                ChatGenerationMetadata.builder().finishReason(finishReason).build());
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,126 @@
+package com.example.springmvc.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * SingleFlight 单元测试
+ *
+ * @author example
+ * @version 1.0.0
+ */
+class SingleFlightTest {
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final CountDownLatch leaderStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseLeader = new CountDownLatch(1);
+
+    @AfterEach
+    void tearDown() {
+        releaseLeader.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void followerSharesLeaderResult() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        Future<String> leader = startBlockedLeader(singleFlight, "leader");
+
+        Future<String> follower = Executors.newSingleThreadExecutor().submit(() ->
+                singleFlight.execute("key", () -> "follower"));
+        Thread.sleep(100);
+        releaseLeader.countDown();
+
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("leader");
+        assertThat(follower.get(5, TimeUnit.SECONDS)).isEqualTo("leader");
+        assertThat(singleFlight.executedCount()).isEqualTo(1);
+        assertThat(singleFlight.coalescedCount()).isEqualTo(1);
+        assertThat(singleFlight.inFlightCount()).isZero();
+    }
+
+    @Test
+    void followerTimesOutAndLoadsItself() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofMillis(50));
+        Future<String> leader = startBlockedLeader(singleFlight, "leader");
+
+        long start = System.nanoTime();
+        String result = singleFlight.execute("key", () -> "follower");
+        long waitedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+
+        assertThat(result).isEqualTo("follower");
+        assertThat(waitedMillis).isGreaterThanOrEqualTo(50).isLessThan(5_000);
+        assertThat(singleFlight.coalescedCount()).isEqualTo(1);
+        assertThat(singleFlight.timedOutCount()).isEqualTo(1);
+        // leader仍在进行中，不受follower超时影响
+        assertThat(leader.isDone()).isFalse();
+        releaseLeader.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("leader");
+    }
+
+    @Test
+    void followerReceivesLeaderException() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        executor.submit(() -> singleFlight.execute("key", () -> {
+            leaderStarted.countDown();
+            awaitRelease();
+            throw new IllegalStateException("load failed");
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        ExecutorService followerExecutor = Executors.newSingleThreadExecutor();
+        Future<String> follower = followerExecutor.submit(() -> singleFlight.execute("key", () -> "follower"));
+        Thread.sleep(100);
+        releaseLeader.countDown();
+
+        assertThatThrownBy(() -> follower.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(IllegalStateException.class)
+                .hasRootCauseMessage("load failed");
+        followerExecutor.shutdownNow();
+    }
+
+    @Test
+    void forgetLetsLaterCallersStartAFreshLoad() throws Exception {
+        SingleFlight<String, String> singleFlight = new SingleFlight<>(Duration.ofSeconds(5));
+        Future<String> leader = startBlockedLeader(singleFlight, "stale");
+
+        singleFlight.forget("key");
+
+        assertThat(singleFlight.execute("key", () -> "fresh")).isEqualTo("fresh");
+        assertThat(singleFlight.executedCount()).isEqualTo(2);
+        assertThat(singleFlight.coalescedCount()).isZero();
+        releaseLeader.countDown();
+        assertThat(leader.get(5, TimeUnit.SECONDS)).isEqualTo("stale");
+    }
+
+    private Future<String> startBlockedLeader(SingleFlight<String, String> singleFlight, String value)
+            throws InterruptedException {
+        Future<String> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            leaderStarted.countDown();
+            awaitRelease();
+            return value;
+        }));
+        assertThat(leaderStarted.await(5, TimeUnit.SECONDS)).isTrue();
+        return leader;
+    }
+
+    private void awaitRelease() {
+        try {
+            releaseLeader.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
@@ -0,0 +1,152 @@
+package com.example.springmvc.cache;
+
+import com.example.springmvc.config.UserCacheProperties;
+import com.example.springmvc.dto.UserResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * UserCache 单元测试（仅本地缓存）
+ *
+ * @author example
+ * @version 1.0.0
+ */
+class UserCacheTest {
+
+    private static final Long ID = 1L;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+    private final CountDownLatch loadStarted = new CountDownLatch(1);
+
+    private final CountDownLatch releaseLoad = new CountDownLatch(1);
+
+    @SuppressWarnings("unchecked")
+    private final UserCache cache = new UserCache(new UserCacheProperties(), new ObjectMapper(),
+            mock(ObjectProvider.class), new SimpleMeterRegistry());
+
+    @AfterEach
+    void tearDown() {
+        releaseLoad.countDown();
+        executor.shutdownNow();
+    }
+
+    @Test
+    void loadStartedBeforeEvictionDoesNotRefillCache() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        Future<UserResponse> staleRead = executor.submit(() -> cache.getById(ID, id -> {
+            loads.incrementAndGet();
+            loadStarted.countDown();
+            awaitRelease();
+            return user("old@example.com");
+        }));
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        // 加载进行中用户被更新
+        cache.evictLocal(ID);
+        releaseLoad.countDown();
+        assertThat(staleRead.get(5, TimeUnit.SECONDS).getEmail()).isEqualTo("old@example.com");
+
+        UserResponse fresh = cache.getById(ID, id -> {
+            loads.incrementAndGet();
+            return user("new@example.com");
+        });
+
+        assertThat(fresh.getEmail()).isEqualTo("new@example.com");
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void readAfterEvictionDoesNotJoinStaleLoad() throws Exception {
+        Future<UserResponse> staleRead = executor.submit(() -> cache.getById(ID, id -> {
+            loadStarted.countDown();
+            awaitRelease();
+            return user("old@example.com");
+        }));
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        cache.evictLocal(ID);
+
+        // 失效后的读取不等待失效前开始的加载
+        assertThat(cache.getById(ID, id -> user("new@example.com")).getEmail()).isEqualTo("new@example.com");
+        releaseLoad.countDown();
+        staleRead.get(5, TimeUnit.SECONDS);
+        assertThat(cache.getById(ID, id -> user("unexpected@example.com")).getEmail())
+                .isEqualTo("new@example.com");
+    }
+
+    @Test
+    void usernameLoadStartedBeforeEvictionDoesNotRefillCache() throws Exception {
+        Future<UserResponse> staleRead = executor.submit(() -> cache.getByUsername("alice", username -> {
+            loadStarted.countDown();
+            awaitRelease();
+            return user("old@example.com");
+        }));
+        assertThat(loadStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+        cache.evictLocal(ID);
+        releaseLoad.countDown();
+        staleRead.get(5, TimeUnit.SECONDS);
+
+        assertThat(cache.getByUsername("alice", username -> user("new@example.com")).getEmail())
+                .isEqualTo("new@example.com");
+    }
+
+    @Test
+    void unchangedLoadIsCached() {
+        cache.getById(ID, id -> user("a@example.com"));
+
+        UserResponse cached = cache.getById(ID, id -> {
+            throw new AssertionError("应命中缓存");
+        });
+
+        assertThat(cached.getEmail()).isEqualTo("a@example.com");
+        assertThat(cache.getAll(List.of(ID), ids -> {
+            throw new AssertionError("应命中缓存");
+        })).containsOnlyKeys(ID);
+    }
+
+    @Test
+    void returnsCopiesOfCachedUsers() {
+        UserResponse first = cache.getById(ID, id -> user("a@example.com"));
+        first.setEmail("mutated@example.com");
+
+        UserResponse second = cache.getById(ID, id -> {
+            throw new AssertionError("应命中缓存");
+        });
+
+        assertThat(second.getEmail()).isEqualTo("a@example.com");
+        assertThat(second).isNotSameAs(first);
+    }
+
+    private static UserResponse user(String email) {
+        UserResponse user = new UserResponse();
+        user.setId(ID);
+        user.setUsername("alice");
+        user.setEmail(email);
+        return user;
+    }
+
+    private void awaitRelease() {
+        try {
+            releaseLoad.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
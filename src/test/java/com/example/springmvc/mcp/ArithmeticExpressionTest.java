@@ -0,0 +1,139 @@
+package com.example.springmvc.mcp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ArithmeticExpression 单元测试
+ *
+ * @author example
+ * @version 1.0.0
+ */
+class ArithmeticExpressionTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "1 + 2 * 3           | 7",
+            "(1 + 2) * 3         | 9",
+            "10 - 4 - 3          | 3",
+            "64 / 4 / 2          | 8",
+            "2 * 3 + 4 * 5       | 26",
+            "8 - 2 * 3 + 1       | 3",
+            "2 * (3 + 4) * 5     | 70",
+            "((((7))))           | 7",
+            "1.5 * 2             | 3",
+            ".5 + 0.25           | 0.75",
+            "  3 *  2            | 6",
+    })
+    void respectsPrecedenceAndAssociativity(String expression, String expected) {
+        assertThat(evaluate(expression)).isEqualByComparingTo(expected);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "-3                  | -3",
+            "--3                 | 3",
+            "+3                  | 3",
+            "-3 * -2             | 6",
+            "2 - -3              | 5",
+            "-(1 + 2) * 3        | -9",
+            "-2 * 3 + 1          | -5",
+            "1 - +2              | -1",
+    })
+    void supportsUnarySigns(String expression, String expected) {
+        assertThat(evaluate(expression)).isEqualByComparingTo(expected);
+    }
+
+    @Test
+    void stripsTrailingZerosWithoutScientificNotation() {
+        assertThat(evaluate("100 * 10").toPlainString()).isEqualTo("1000");
+        assertThat(evaluate("1.50 + 1.50").toPlainString()).isEqualTo("3");
+        assertThat(evaluate("0.1 + 0.2").toPlainString()).isEqualTo("0.3");
+    }
+
+    @Test
+    void roundsDivisionToDecimal128() {
+        assertThat(evaluate("1 / 3")).isEqualTo(new BigDecimal("0.3333333333333333333333333333333333"));
+    }
+
+    @Test
+    void compiledExpressionCanBeEvaluatedRepeatedly() {
+        ArithmeticExpression expression = ArithmeticExpression.compile("(2 + 3) * 4");
+
+        assertThat(expression.evaluate()).isEqualByComparingTo("20");
+        assertThat(expression.evaluate()).isEqualByComparingTo("20");
+        assertThat(expression).hasToString("(2 + 3) * 4");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1 / 0", "1 / (2 - 2)", "5 / 0.0"})
+    void rejectsDivisionByZeroOnEvaluation(String expression) {
+        ArithmeticExpression compiled = ArithmeticExpression.compile(expression);
+
+        assertThatThrownBy(compiled::evaluate)
+                .isInstanceOf(ArithmeticException.class)
+                .hasMessage("除数不能为0");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1 +", "(1 + 2", "1 + 2)", "1 2", "2 * * 3", "1.2.3", ".", "abc", "1 + x",
+            "Math.max(1, 2)", "()", "1 ^ 2"})
+    void rejectsMalformedExpressions(String expression) {
+        assertThatThrownBy(() -> ArithmeticExpression.compile(expression))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("表达式语法错误");
+    }
+
+    @Test
+    void reportsPositionOfSyntaxError() {
+        assertThatThrownBy(() -> ArithmeticExpression.compile("1 + $"))
+                .hasMessage("表达式语法错误（位置 5）: 非法字符 '$'");
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "   "})
+    void rejectsBlankExpressions(String expression) {
+        assertThatThrownBy(() -> ArithmeticExpression.compile(expression))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessage("表达式不能为空");
+    }
+
+    @Test
+    void rejectsNullExpression() {
+        assertThatThrownBy(() -> ArithmeticExpression.compile(null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void rejectsExpressionsLongerThanMaxLength() {
+        String expression = "1" + "+1".repeat(ArithmeticExpression.MAX_LENGTH / 2);
+
+        assertThatThrownBy(() -> ArithmeticExpression.compile(expression))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(ArithmeticExpression.MAX_LENGTH));
+    }
+
+    @Test
+    void rejectsDeepNesting() {
+        String expression = "(".repeat(200) + "1" + ")".repeat(200);
+
+        assertThatThrownBy(() -> ArithmeticExpression.compile(expression))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("嵌套层数");
+        assertThatThrownBy(() -> ArithmeticExpression.compile("-".repeat(200) + "1"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("嵌套层数");
+    }
+
+    private static BigDecimal evaluate(String expression) {
+        return ArithmeticExpression.compile(expression).evaluate();
+    }
+
+}
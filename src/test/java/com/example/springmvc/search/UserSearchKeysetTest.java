@@ -0,0 +1,140 @@
+package com.example.springmvc.search;
+
+import com.example.springmvc.config.UserSearchProperties;
+import com.example.springmvc.entity.User;
+import com.example.springmvc.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 用户搜索键集分页测试
+ *
+ * 内存索引（UserSearchIndex#searchAfter）和数据库（UserRepositoryCustom#findByKeyset）
+ * 对创建时间相同的用户必须给出相同的顺序，游标在两条路径之间续读时不跳过、不重复
+ *
+ * @author example
+ * @version 1.0.0
+ */
+@DataJpaTest
+class UserSearchKeysetTest {
+
+    private static final String KEYWORD = "tie";
+
+    private static final int PAGE_SIZE = 2;
+
+    private static final LocalDateTime BASE = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    private UserSearchIndex index;
+
+    private final Map<Long, LocalDateTime> createdAt = new HashMap<>();
+
+    /**
+     * 路径：内存索引或数据库
+     */
+    private interface Path {
+
+        List<Long> page(Sort.Order order, LocalDateTime lastCreatedAt, Long lastId);
+    }
+
+    @BeforeEach
+    void setUp() {
+        // 三组相同的创建时间，每组跨越分页边界
+        LocalDateTime[] times = {BASE, BASE, BASE, BASE, BASE.plusMinutes(1), BASE.plusMinutes(1), BASE.minusMinutes(1)};
+        List<Long> ids = new ArrayList<>();
+        for (int i = 0; i < times.length; i++) {
+            User user = new User();
+            user.setUsername(KEYWORD + "_user_" + i);
+            user.setEmail(KEYWORD + i + "@example.com");
+            user.setPassword("password");
+            ids.add(entityManager.persistAndGetId(user, Long.class));
+        }
+        entityManager.flush();
+        // 创建时间由 @PrePersist 设置，这里直接改写为相同的值
+        for (int i = 0; i < times.length; i++) {
+            entityManager.getEntityManager()
+                    .createQuery("UPDATE User u SET u.createdAt = :createdAt WHERE u.id = :id")
+                    .setParameter("createdAt", times[i])
+                    .setParameter("id", ids.get(i))
+                    .executeUpdate();
+            createdAt.put(ids.get(i), times[i]);
+        }
+        entityManager.clear();
+
+        index = new UserSearchIndex(userRepository, new UserSearchProperties());
+        index.rebuild();
+    }
+
+    @ParameterizedTest
+    @EnumSource(Sort.Direction.class)
+    void indexAndDatabaseAgreeOnTiedTimestamps(Sort.Direction direction) {
+        Sort.Order order = new Sort.Order(direction, "createdAt");
+        List<Long> expected = expectedOrder(direction);
+
+        assertThat(scroll(order, indexPath(), indexPath())).containsExactlyElementsOf(expected);
+        assertThat(scroll(order, databasePath(), databasePath())).containsExactlyElementsOf(expected);
+        // 游标由一条路径发出、由另一条路径续读
+        assertThat(scroll(order, indexPath(), databasePath())).containsExactlyElementsOf(expected);
+        assertThat(scroll(order, databasePath(), indexPath())).containsExactlyElementsOf(expected);
+    }
+
+    private List<Long> expectedOrder(Sort.Direction direction) {
+        Comparator<Long> comparator = Comparator.<Long, LocalDateTime>comparing(createdAt::get)
+                .thenComparing(Comparator.naturalOrder());
+        if (direction.isDescending()) {
+            comparator = comparator.reversed();
+        }
+        return createdAt.keySet().stream().sorted(comparator).toList();
+    }
+
+    /**
+     * 逐页读取，奇数页和偶数页分别走两条路径
+     */
+    private List<Long> scroll(Sort.Order order, Path first, Path second) {
+        List<Long> result = new ArrayList<>();
+        LocalDateTime lastCreatedAt = null;
+        Long lastId = null;
+        for (int page = 0; page < createdAt.size(); page++) {
+            List<Long> ids = (page % 2 == 0 ? first : second).page(order, lastCreatedAt, lastId);
+            if (ids.isEmpty()) {
+                break;
+            }
+            result.addAll(ids);
+            lastId = ids.get(ids.size() - 1);
+            lastCreatedAt = createdAt.get(lastId);
+        }
+        return result;
+    }
+
+    private Path indexPath() {
+        return (order, lastCreatedAt, lastId) ->
+                index.searchAfter(KEYWORD, order, lastCreatedAt, lastId, PAGE_SIZE).orElseThrow();
+    }
+
+    private Path databasePath() {
+        return (order, lastCreatedAt, lastId) ->
+                userRepository.findByKeyset(null, KEYWORD, order, lastCreatedAt, lastId, PAGE_SIZE).stream()
+                        .map(User::getId)
+                        .toList();
+    }
+
+}